@@ -2,8 +2,10 @@ package com.online_ordering.online_ordering;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
 public class OnlineOrderingApplication {
 
 	public static void main(String[] args) {
@@ -0,0 +1,95 @@
+package com.online_ordering.online_ordering.config;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+// Brings the data of a database created by an earlier version in line with the current mapping. ddl-auto=update
+// adds missing tables, columns and sequences but never touches what is already in them. Every step checks
+// before it changes anything, so this runs on each startup, after Hibernate's schema update (it depends on the
+// EntityManagerFactory) and before the application takes traffic.
+@Component
+public class LegacySchemaUpgrade {
+
+    private static final Logger log = LoggerFactory.getLogger(LegacySchemaUpgrade.class);
+
+    private final JdbcTemplate jdbcTemplate;
+
+    // DDL and setval need a commit: pooled connections have auto-commit off
+    private final TransactionTemplate transactionTemplate;
+
+    public LegacySchemaUpgrade(EntityManagerFactory entityManagerFactory, JdbcTemplate jdbcTemplate,
+                               PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @PostConstruct
+    public void upgrade() {
+        // H2 (dev and tests) is created from scratch on every start
+        if (!isPostgres()) {
+            return;
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            // Nodes starting together take turns
+            jdbcTemplate.queryForList("SELECT pg_advisory_xact_lock(hashtext('parcels-schema-upgrade'))");
+            advanceParcelSequence();
+            backfillParcelVersion();
+        });
+    }
+
+    private boolean isPostgres() {
+        String product = jdbcTemplate.execute((ConnectionCallback<String>) connection ->
+            connection.getMetaData().getDatabaseProductName());
+        return "PostgreSQL".equals(product);
+    }
+
+    // Parcel ids used to come from an identity column; the parcels_seq that replaced it starts at 1. Moves it past
+    // every id in use (archived parcels keep theirs), so the next block Hibernate's pooled optimizer takes, ids
+    // (value - 49) to value, starts above them. Only ever moves the sequence forward.
+    private void advanceParcelSequence() {
+        if (!exists("parcels_seq") || !exists("parcels")) {
+            return;
+        }
+        String maxIdSql = exists("parcels_archive")
+            ? "SELECT GREATEST((SELECT COALESCE(MAX(id), 0) FROM parcels), "
+                + "(SELECT COALESCE(MAX(id), 0) FROM parcels_archive))"
+            : "SELECT COALESCE(MAX(id), 0) FROM parcels";
+        long maxId = jdbcTemplate.queryForObject(maxIdSql, Long.class);
+        // Before its first nextval the sequence hands out last_value itself, afterwards the block ending there
+        Long advancedFrom = jdbcTemplate.query(
+            "SELECT last_value FROM parcels_seq WHERE (is_called AND last_value < ?) OR (NOT is_called AND last_value <= ?)",
+            rs -> rs.next() ? rs.getLong(1) : null, maxId, maxId);
+        if (advancedFrom == null) {
+            return;
+        }
+        jdbcTemplate.queryForList("SELECT setval('parcels_seq', ?, true)", maxId);
+        log.info("Moved parcels_seq from {} past the highest existing parcel id {}", advancedFrom, maxId);
+    }
+
+    // The version column was added as nullable by ddl-auto=update before it had a default; today's mapping adds it
+    // as NOT NULL DEFAULT 0 straight away, but update never alters a column that is already there
+    private void backfillParcelVersion() {
+        String nullable = jdbcTemplate.query("SELECT is_nullable FROM information_schema.columns "
+                + "WHERE table_schema = current_schema() AND table_name = 'parcels' AND column_name = 'version'",
+            rs -> rs.next() ? rs.getString(1) : null);
+        if (!"YES".equals(nullable)) {
+            return;
+        }
+        int backfilled = jdbcTemplate.update("UPDATE parcels SET version = 0 WHERE version IS NULL");
+        jdbcTemplate.execute("ALTER TABLE parcels ALTER COLUMN version SET DEFAULT 0");
+        jdbcTemplate.execute("ALTER TABLE parcels ALTER COLUMN version SET NOT NULL");
+        log.info("Set version 0 on {} parcels that had none; parcels.version is now NOT NULL DEFAULT 0", backfilled);
+    }
+
+    private boolean exists(String relation) {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+            "SELECT to_regclass(?) IS NOT NULL", Boolean.class, relation));
+    }
+}
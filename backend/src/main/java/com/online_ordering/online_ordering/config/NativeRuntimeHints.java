@@ -0,0 +1,37 @@
+package com.online_ordering.online_ordering.config;
+
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import com.online_ordering.online_ordering.dto.ParcelRequest;
+import com.online_ordering.online_ordering.dto.RateCard;
+import com.online_ordering.online_ordering.entity.Parcel;
+import org.hibernate.cache.jcache.internal.JCacheRegionFactory;
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.ImportRuntimeHints;
+
+// What a native image cannot discover on its own. AOT processing already covers beans, entities, repositories
+// and controller request/response bodies; these are the resources and types the code loads or binds by name.
+@Configuration
+@ImportRuntimeHints(NativeRuntimeHints.class)
+public class NativeRuntimeHints implements RuntimeHintsRegistrar {
+
+    @Override
+    public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+        hints.resources()
+            .registerPattern("rates/*.json")
+            // Caffeine's JCache provider reads its defaults from here
+            .registerPattern("reference.conf");
+
+        // Read with ObjectMapper directly: the rate card, write-behind log entries and bulk import lines
+        BindingReflectionHintsRegistrar bindings = new BindingReflectionHintsRegistrar();
+        bindings.registerReflectionHints(hints.reflection(), RateCard.class, Parcel.class, ParcelRequest.class);
+
+        // hibernate.cache.region.factory_class=jcache and the JCache provider are instantiated reflectively
+        hints.reflection()
+            .registerType(JCacheRegionFactory.class, MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS)
+            .registerType(CaffeineCachingProvider.class, MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS);
+    }
+}
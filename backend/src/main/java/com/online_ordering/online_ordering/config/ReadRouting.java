@@ -0,0 +1,29 @@
+package com.online_ordering.online_ordering.config;
+
+import java.util.function.Supplier;
+
+// Pins the read-only transactions started (or first touching the database) inside a block to the primary,
+// for reads that must see a write the replicas may not have replayed yet. A no-op without replicas.
+public final class ReadRouting {
+
+    private static final ThreadLocal<Boolean> PRIMARY = new ThreadLocal<>();
+
+    private ReadRouting() {
+    }
+
+    public static <T> T onPrimary(Supplier<T> work) {
+        Boolean previous = PRIMARY.get();
+        PRIMARY.set(Boolean.TRUE);
+        try {
+            return work.get();
+        } finally {
+            if (previous == null) {
+                PRIMARY.remove();
+            }
+        }
+    }
+
+    static boolean primaryRequired() {
+        return PRIMARY.get() != null;
+    }
+}
@@ -0,0 +1,152 @@
+package com.online_ordering.online_ordering.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.io.Closeable;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Connections for read-only transactions: round-robin over the replicas whose last measured lag is within
+// max-lag, falling back to the primary when none is, when one cannot hand out a connection, or when the
+// caller is pinned to the primary through ReadRouting
+public class ReplicaRouter extends AbstractDataSource implements Closeable {
+
+    private static final Logger log = LoggerFactory.getLogger(ReplicaRouter.class);
+
+    static final class Replica {
+
+        private final String name;
+
+        private final HikariDataSource dataSource;
+
+        // Seconds behind the primary at the last check, NaN when the check failed
+        private volatile double lagSeconds = Double.NaN;
+
+        private volatile boolean healthy;
+
+        Replica(String name, HikariDataSource dataSource) {
+            this.name = name;
+            this.dataSource = dataSource;
+        }
+    }
+
+    private final HikariDataSource primary;
+
+    private final List<Replica> replicas;
+
+    private final double maxLagSeconds;
+
+    private final String lagQuery;
+
+    private final AtomicInteger next = new AtomicInteger();
+
+    private final Counter replicaReads;
+
+    private final Counter pinnedReads;
+
+    private final Counter fallbackReads;
+
+    public ReplicaRouter(HikariDataSource primary, List<HikariDataSource> replicas, Duration maxLag, String lagQuery,
+                         MeterRegistry meterRegistry) {
+        this.primary = primary;
+        this.replicas = replicas.stream().map(ds -> new Replica(ds.getPoolName(), ds)).toList();
+        this.maxLagSeconds = maxLag.toMillis() / 1000.0;
+        this.lagQuery = lagQuery;
+        this.replicaReads = readCounter(meterRegistry, "replica");
+        this.pinnedReads = readCounter(meterRegistry, "primary-pinned");
+        this.fallbackReads = readCounter(meterRegistry, "primary-fallback");
+        for (Replica replica : this.replicas) {
+            Gauge.builder("parcels.datasource.replica.lag", replica, r -> r.lagSeconds)
+                .description("Replication lag measured by the last check, NaN when the replica is unreachable")
+                .baseUnit("seconds")
+                .tag("replica", replica.name)
+                .register(meterRegistry);
+        }
+        checkLag();
+    }
+
+    private static Counter readCounter(MeterRegistry meterRegistry, String target) {
+        return Counter.builder("parcels.datasource.reads")
+            .description("Connections handed to read-only transactions, by where they were routed")
+            .tag("target", target)
+            .register(meterRegistry);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (ReadRouting.primaryRequired()) {
+            pinnedReads.increment();
+            return primary.getConnection();
+        }
+        int start = Math.floorMod(next.getAndIncrement(), replicas.size());
+        for (int i = 0; i < replicas.size(); i++) {
+            Replica replica = replicas.get((start + i) % replicas.size());
+            if (!replica.healthy) {
+                continue;
+            }
+            try {
+                Connection connection = replica.dataSource.getConnection();
+                replicaReads.increment();
+                return connection;
+            } catch (SQLException e) {
+                // Out of rotation until the next check finds it reachable again
+                replica.healthy = false;
+                log.warn("Replica {} unavailable, routing reads elsewhere: {}", replica.name, e.getMessage());
+            }
+        }
+        fallbackReads.increment();
+        return primary.getConnection();
+    }
+
+    // Other credentials mean a caller outside the routing; the primary answers as it would without a router
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return primary.getConnection(username, password);
+    }
+
+    // Measures each replica's lag; one over max-lag (or unreachable) stops receiving reads until it catches up
+    @Scheduled(fixedDelayString = "${parcels.datasource.replica-lag-check-interval:PT1S}")
+    public void checkLag() {
+        for (Replica replica : replicas) {
+            boolean wasHealthy = replica.healthy;
+            try (Connection connection = replica.dataSource.getConnection();
+                 Statement statement = connection.createStatement();
+                 ResultSet rs = statement.executeQuery(lagQuery)) {
+                replica.lagSeconds = rs.next() ? rs.getDouble(1) : 0;
+                replica.healthy = replica.lagSeconds <= maxLagSeconds;
+                connection.rollback();
+            } catch (SQLException e) {
+                replica.lagSeconds = Double.NaN;
+                replica.healthy = false;
+            }
+            if (wasHealthy != replica.healthy) {
+                log.info("Replica {} {} (lag {}s, max {}s)", replica.name,
+                    replica.healthy ? "back in rotation" : "out of rotation", replica.lagSeconds, maxLagSeconds);
+            }
+        }
+    }
+
+    public HikariDataSource getPrimary() {
+        return primary;
+    }
+
+    @Override
+    public void close() {
+        for (Replica replica : replicas) {
+            replica.dataSource.close();
+        }
+        primary.close();
+    }
+}
@@ -0,0 +1,79 @@
+package com.online_ordering.online_ordering.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+// Replaces the auto-configured pool when replicas are listed. Transactions get a lazy connection that is only
+// fetched at the first statement, by which point Spring has marked read-only transactions: those are served by
+// the ReplicaRouter, everything else by the primary.
+@Configuration
+@ConditionalOnExpression("!'${parcels.datasource.replica-urls:}'.isBlank()")
+public class ReplicaRoutingConfig {
+
+    @Bean(destroyMethod = "close")
+    public ReplicaRouter replicaRouter(
+            DataSourceProperties properties,
+            Environment environment,
+            MeterRegistry meterRegistry,
+            @Value("${parcels.datasource.replica-urls}") List<String> replicaUrls,
+            @Value("${parcels.datasource.replica-username:${spring.datasource.username:}}") String username,
+            @Value("${parcels.datasource.replica-password:${spring.datasource.password:}}") String password,
+            @Value("${parcels.datasource.replica-pool-size:${spring.datasource.hikari.maximum-pool-size:10}}") int poolSize,
+            @Value("${parcels.datasource.max-lag:2s}") Duration maxLag,
+            @Value("${parcels.datasource.replica-lag-query}") String lagQuery) {
+        // Same pool settings Boot would apply to the auto-configured one
+        HikariDataSource primary = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        Binder.get(environment).bind("spring.datasource.hikari", Bindable.ofInstance(primary));
+
+        List<HikariDataSource> replicas = new ArrayList<>();
+        for (int i = 0; i < replicaUrls.size(); i++) {
+            HikariDataSource replica = new HikariDataSource();
+            replica.setPoolName("parcels-replica-" + (i + 1));
+            replica.setJdbcUrl(replicaUrls.get(i).trim());
+            replica.setUsername(username);
+            replica.setPassword(password);
+            replica.setMaximumPoolSize(poolSize);
+            replica.setConnectionTimeout(primary.getConnectionTimeout());
+            replica.setMaxLifetime(primary.getMaxLifetime());
+            replica.setKeepaliveTime(primary.getKeepaliveTime());
+            replica.setDataSourceProperties(primary.getDataSourceProperties());
+            // Must match the primary: the lazy proxy assumes one auto-commit default for both
+            replica.setAutoCommit(primary.isAutoCommit());
+            replica.setReadOnly(true);
+            // A replica that is down at startup is simply out of rotation until the lag check reaches it
+            replica.setInitializationFailTimeout(-1);
+            replica.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+            replicas.add(replica);
+        }
+        return new ReplicaRouter(primary, replicas, maxLag, lagQuery, meterRegistry);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicaRouter replicaRouter) {
+        HikariDataSource primary = replicaRouter.getPrimary();
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(primary);
+        dataSource.setReadOnlyDataSource(replicaRouter);
+        // Known up front, so the proxy never borrows a connection just to read them
+        dataSource.setDefaultAutoCommit(primary.isAutoCommit());
+        dataSource.setDefaultTransactionIsolation(Connection.TRANSACTION_READ_COMMITTED);
+        return dataSource;
+    }
+}
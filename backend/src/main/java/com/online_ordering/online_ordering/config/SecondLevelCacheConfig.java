@@ -0,0 +1,79 @@
+package com.online_ordering.online_ordering.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cache.spi.RegionFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import javax.cache.configuration.MutableConfiguration;
+import javax.cache.expiry.CreatedExpiryPolicy;
+import javax.cache.spi.CachingProvider;
+import java.net.URI;
+import java.time.Duration;
+import java.util.OptionalLong;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+// Hibernate second-level cache regions, held by a JCache provider (Caffeine unless parcels.l2-cache.provider names
+// another). Every region is created here with its bounds; Hibernate fails at startup if an entity or a cacheable
+// query asks for one that is missing. Nodes invalidate each other through ParcelCacheInvalidator.
+@Configuration
+@ConditionalOnProperty(name = "parcels.l2-cache.enabled", havingValue = "true", matchIfMissing = true)
+public class SecondLevelCacheConfig {
+
+    // Matches @Cache(region = ...) on Parcel
+    public static final String PARCEL_REGION = "parcels";
+
+    @Bean(destroyMethod = "close")
+    public CacheManager secondLevelCacheManager(
+            @Value("${parcels.l2-cache.provider:com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider}") String provider,
+            @Value("${parcels.l2-cache.entity.maximum-size:100000}") long entityMaximumSize,
+            @Value("${parcels.l2-cache.entity.ttl:10m}") Duration entityTtl,
+            @Value("${parcels.l2-cache.query.maximum-size:100}") long queryMaximumSize,
+            @Value("${parcels.l2-cache.query.ttl:30s}") Duration queryTtl) {
+        CachingProvider cachingProvider = Caching.getCachingProvider(provider);
+        // Providers hand out one manager per URI and Hibernate closes its manager on shutdown, so every
+        // application context gets its own
+        CacheManager manager = cachingProvider.getCacheManager(
+            URI.create("parcels-l2:" + UUID.randomUUID()), getClass().getClassLoader());
+        manager.createCache(PARCEL_REGION, bounded(cachingProvider, entityMaximumSize, entityTtl));
+        manager.createCache(RegionFactory.DEFAULT_QUERY_RESULTS_REGION_UNQUALIFIED_NAME,
+            bounded(cachingProvider, queryMaximumSize, queryTtl));
+        // Last-update times per table; must outlive every cached query result, so neither bounded nor expiring
+        manager.createCache(RegionFactory.DEFAULT_UPDATE_TIMESTAMPS_REGION_UNQUALIFIED_NAME,
+            new MutableConfiguration<>().setStoreByValue(false));
+        return manager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer secondLevelCacheProperties(CacheManager secondLevelCacheManager) {
+        return properties -> {
+            properties.put("hibernate.cache.region.factory_class", "jcache");
+            properties.put(ConfigSettings.CACHE_MANAGER, secondLevelCacheManager);
+            properties.put(ConfigSettings.MISSING_CACHE_STRATEGY, "fail");
+        };
+    }
+
+    // Entries are stored by reference: Hibernate already keeps them in its own disassembled form
+    private static javax.cache.configuration.Configuration<Object, Object> bounded(CachingProvider provider,
+                                                                                   long maximumSize, Duration ttl) {
+        if (provider instanceof CaffeineCachingProvider) {
+            return new CaffeineConfiguration<>()
+                .setMaximumSize(OptionalLong.of(maximumSize))
+                .setExpireAfterWrite(OptionalLong.of(ttl.toNanos()))
+                .setStoreByValue(false);
+        }
+        // Other providers take the size bound from their own configuration
+        return new MutableConfiguration<>()
+            .setExpiryPolicyFactory(CreatedExpiryPolicy.factoryOf(
+                new javax.cache.expiry.Duration(TimeUnit.MILLISECONDS, ttl.toMillis())))
+            .setStoreByValue(false);
+    }
+}
@@ -0,0 +1,41 @@
+package com.online_ordering.online_ordering.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.env.Environment;
+import org.springframework.core.env.Profiles;
+import org.springframework.stereotype.Component;
+
+// SQL logging writes (and with format_sql, pretty-prints) every statement; easy to leave on after debugging
+@Component
+public class SqlLoggingStartupCheck {
+
+    private static final Logger log = LoggerFactory.getLogger(SqlLoggingStartupCheck.class);
+
+    private final Environment environment;
+
+    @Value("${spring.jpa.show-sql:false}")
+    private boolean showSql;
+
+    @Value("${spring.jpa.properties.hibernate.format_sql:false}")
+    private boolean formatSql;
+
+    public SqlLoggingStartupCheck(Environment environment) {
+        this.environment = environment;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void check() {
+        if (!environment.acceptsProfiles(Profiles.of("prod"))) {
+            return;
+        }
+        boolean sqlLogger = LoggerFactory.getLogger("org.hibernate.SQL").isDebugEnabled();
+        if (showSql || sqlLogger) {
+            log.warn("SQL logging is enabled in the prod profile (spring.jpa.show-sql={}, org.hibernate.SQL debug={}, "
+                + "format_sql={}); every statement is logged on the request path", showSql, sqlLogger, formatSql);
+        }
+    }
+}
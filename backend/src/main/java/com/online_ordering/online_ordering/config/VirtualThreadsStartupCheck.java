@@ -0,0 +1,29 @@
+package com.online_ordering.online_ordering.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+// Spring Boot silently ignores spring.threads.virtual.enabled below Java 21; make that visible
+@Component
+public class VirtualThreadsStartupCheck {
+
+    private static final Logger log = LoggerFactory.getLogger(VirtualThreadsStartupCheck.class);
+
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreadsEnabled;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void check() {
+        int javaVersion = Runtime.version().feature();
+        if (virtualThreadsEnabled && javaVersion < 21) {
+            log.warn("spring.threads.virtual.enabled=true but the JVM is Java {}; requests run on platform threads. "
+                + "Run on Java 21+ to use virtual threads", javaVersion);
+        } else if (virtualThreadsEnabled) {
+            log.info("Serving requests on virtual threads (Java {})", javaVersion);
+        }
+    }
+}
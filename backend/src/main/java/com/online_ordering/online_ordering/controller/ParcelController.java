@@ -1,16 +1,46 @@
 package com.online_ordering.online_ordering.controller;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.online_ordering.online_ordering.dto.BulkParcelResponse;
+import com.online_ordering.online_ordering.dto.BulkStatusRequest;
+import com.online_ordering.online_ordering.dto.ParcelPage;
 import com.online_ordering.online_ordering.dto.ParcelRequest;
+import com.online_ordering.online_ordering.dto.ParcelSearchResult;
+import com.online_ordering.online_ordering.dto.ParcelStats;
+import com.online_ordering.online_ordering.dto.ParcelSummary;
 import com.online_ordering.online_ordering.entity.Parcel;
+import com.online_ordering.online_ordering.entity.ParcelStatusEntry;
+import com.online_ordering.online_ordering.service.BulkParcelService;
+import com.online_ordering.online_ordering.service.BulkStatusService;
+import com.online_ordering.online_ordering.service.ParcelEventBus;
 import com.online_ordering.online_ordering.service.ParcelService;
+import com.online_ordering.online_ordering.service.WriteBehindBookingService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.WebAsyncTask;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.time.Duration;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.Callable;
 
 @RestController
 @RequestMapping("/api/parcels")
@@ -20,9 +50,43 @@ public class ParcelController {
     @Autowired
     private ParcelService parcelService;
 
+    @Autowired
+    private BulkParcelService bulkParcelService;
+
+    @Autowired
+    private BulkStatusService bulkStatusService;
+
+    @Autowired
+    private ParcelEventBus parcelEventBus;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    // -1 (no limit) unless parcels.export.timeout is positive
+    private final long exportTimeoutMillis;
+
+    public ParcelController(@Value("${parcels.export.timeout:0}") Duration exportTimeout) {
+        this.exportTimeoutMillis = exportTimeout.isNegative() || exportTimeout.isZero() ? -1 : exportTimeout.toMillis();
+    }
+
+    // Present only when parcels.booking.mode=write-behind
+    @Autowired(required = false)
+    private WriteBehindBookingService writeBehindBooking;
+
     // Create a new parcel booking
     @PostMapping
     public ResponseEntity<?> createParcel(@Valid @RequestBody ParcelRequest request) {
+        if (writeBehindBooking != null) {
+            try {
+                // Accepted: durable locally, in the database shortly; tracking already works
+                Parcel parcel = writeBehindBooking.book(request);
+                return ResponseEntity.accepted()
+                    .location(URI.create("/api/parcels/track/" + parcel.getTrackingNumber()))
+                    .body(parcel);
+            } catch (IllegalStateException | UncheckedIOException e) {
+                // Backlog full, shutting down or local disk failing: book synchronously instead
+            }
+        }
         try {
             Parcel parcel = parcelService.createParcel(request);
             return new ResponseEntity<>(parcel, HttpStatus.CREATED);
@@ -34,11 +98,79 @@ public class ParcelController {
         }
     }
 
-    // Get all parcels
+    // Bulk booking from a JSON array of parcel requests
+    @PostMapping(value = "/bulk", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<?> createParcels(@RequestBody List<ParcelRequest> requests) {
+        try {
+            BulkParcelResponse response = bulkParcelService.createParcels(requests);
+            return new ResponseEntity<>(response, HttpStatus.OK);
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(
+                new ErrorResponse(e.getMessage()),
+                HttpStatus.BAD_REQUEST
+            );
+        }
+    }
+
+    // Bulk booking from an NDJSON stream, one parcel request per line
+    @PostMapping(value = "/bulk", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<?> createParcelsFromStream(HttpServletRequest request) {
+        try {
+            BulkParcelResponse response = bulkParcelService.createParcels(request.getReader());
+            return new ResponseEntity<>(response, HttpStatus.OK);
+        } catch (IOException e) {
+            return new ResponseEntity<>(
+                new ErrorResponse("Failed to read bulk upload: " + e.getMessage()),
+                HttpStatus.BAD_REQUEST
+            );
+        }
+    }
+
+    // Get all parcels, one keyset page at a time
     @GetMapping
-    public ResponseEntity<List<Parcel>> getAllParcels() {
-        List<Parcel> parcels = parcelService.getAllParcels();
-        return new ResponseEntity<>(parcels, HttpStatus.OK);
+    public ResponseEntity<?> getAllParcels(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        try {
+            ParcelPage<Parcel> page = parcelService.getParcelsPage(cursor, size);
+            return new ResponseEntity<>(page, HttpStatus.OK);
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(
+                new ErrorResponse(e.getMessage()),
+                HttpStatus.BAD_REQUEST
+            );
+        }
+    }
+
+    // Stream all parcels as NDJSON, one row per line, as the database returns them. Written by an async task
+    // with its own timeout (none by default): a whole-table export outlives the default async request timeout,
+    // which every other async response keeps.
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public WebAsyncTask<Void> streamAllParcels(HttpServletResponse response) {
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        Callable<Void> body = () -> {
+            // One generator for the whole response; the servlet buffer decides when bytes hit the wire
+            ObjectWriter writer = objectMapper.writer()
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+            try (JsonGenerator generator = objectMapper.getFactory()
+                    .createGenerator(response.getOutputStream())
+                    .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                    .setRootValueSeparator(null)) {
+                parcelService.streamAllParcels(parcel -> {
+                    try {
+                        writer.writeValue(generator, parcel);
+                        generator.writeRaw('\n');
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            } catch (UncheckedIOException e) {
+                // Client disconnected mid-stream
+                throw e.getCause();
+            }
+            return null;
+        };
+        return new WebAsyncTask<>(exportTimeoutMillis, body);
     }
 
     // Get parcel by ID
@@ -46,7 +178,7 @@ public class ParcelController {
     public ResponseEntity<?> getParcelById(@PathVariable Long id) {
         Optional<Parcel> parcel = parcelService.getParcelById(id);
         if (parcel.isPresent()) {
-            return new ResponseEntity<>(parcel.get(), HttpStatus.OK);
+            return withETag(parcel.get());
         }
         return new ResponseEntity<>(
             new ErrorResponse("Parcel not found with id: " + id),
@@ -67,42 +199,144 @@ public class ParcelController {
         );
     }
 
+    // Get the tracking history of a parcel by tracking number
+    @GetMapping("/track/{trackingNumber}/history")
+    public ResponseEntity<?> trackParcelHistory(@PathVariable String trackingNumber) {
+        try {
+            return new ResponseEntity<>(parcelService.getStatusHistoryByTrackingNumber(trackingNumber), HttpStatus.OK);
+        } catch (RuntimeException e) {
+            return new ResponseEntity<>(new ErrorResponse(e.getMessage()), HttpStatus.NOT_FOUND);
+        }
+    }
+
+    // Subscribe to status changes of one parcel as server-sent events (replaces polling /track/{trackingNumber})
+    @GetMapping("/track/{trackingNumber}/events")
+    public ResponseEntity<SseEmitter> trackParcelEvents(@PathVariable String trackingNumber) {
+        if (parcelService.getParcelByTrackingNumber(trackingNumber).isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        try {
+            return ResponseEntity.ok(parcelEventBus.subscribeToTrackingNumber(trackingNumber));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+    }
+
+    // Get parcel counts per status and delivery type (served from counters, not the parcels table)
+    @GetMapping("/stats")
+    public ResponseEntity<ParcelStats> getStats() {
+        return new ResponseEntity<>(parcelService.getStats(), HttpStatus.OK);
+    }
+
+    // Get tracking cache statistics
+    @GetMapping("/cache/stats")
+    public ResponseEntity<Map<String, Object>> getTrackingCacheStats() {
+        return new ResponseEntity<>(parcelService.getTrackingCacheStats(), HttpStatus.OK);
+    }
+
     // Get parcels by sender email
     @GetMapping("/sender/{email}")
-    public ResponseEntity<List<Parcel>> getParcelsBySender(@PathVariable String email) {
-        List<Parcel> parcels = parcelService.getParcelsBySenderEmail(email);
+    public ResponseEntity<List<ParcelSummary>> getParcelsBySender(@PathVariable String email) {
+        List<ParcelSummary> parcels = parcelService.getParcelsBySenderEmail(email);
         return new ResponseEntity<>(parcels, HttpStatus.OK);
     }
 
     // Get parcels by recipient email
     @GetMapping("/recipient/{email}")
-    public ResponseEntity<List<Parcel>> getParcelsByRecipient(@PathVariable String email) {
-        List<Parcel> parcels = parcelService.getParcelsByRecipientEmail(email);
+    public ResponseEntity<List<ParcelSummary>> getParcelsByRecipient(@PathVariable String email) {
+        List<ParcelSummary> parcels = parcelService.getParcelsByRecipientEmail(email);
         return new ResponseEntity<>(parcels, HttpStatus.OK);
     }
 
     // Get parcels by user email (as sender or recipient)
     @GetMapping("/user/{email}")
-    public ResponseEntity<List<Parcel>> getParcelsByUser(@PathVariable String email) {
-        List<Parcel> parcels = parcelService.getParcelsByUserEmail(email);
+    public ResponseEntity<List<ParcelSummary>> getParcelsByUser(@PathVariable String email) {
+        List<ParcelSummary> parcels = parcelService.getParcelsByUserEmail(email);
         return new ResponseEntity<>(parcels, HttpStatus.OK);
     }
 
+    // Subscribe to status changes of every parcel the user sends or receives
+    @GetMapping("/user/{email}/events")
+    public ResponseEntity<SseEmitter> userParcelEvents(@PathVariable String email) {
+        try {
+            return ResponseEntity.ok(parcelEventBus.subscribeToUser(email));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+    }
+
     // Get parcels by status
     @GetMapping("/status/{status}")
-    public ResponseEntity<List<Parcel>> getParcelsByStatus(@PathVariable Parcel.ParcelStatus status) {
-        List<Parcel> parcels = parcelService.getParcelsByStatus(status);
+    public ResponseEntity<List<ParcelSummary>> getParcelsByStatus(@PathVariable Parcel.ParcelStatus status) {
+        List<ParcelSummary> parcels = parcelService.getParcelsByStatus(status);
         return new ResponseEntity<>(parcels, HttpStatus.OK);
     }
 
+    // Search parcels by word prefixes of names, phones, addresses, description or tracking number
+    @GetMapping("/search")
+    public ResponseEntity<?> searchParcels(@RequestParam("q") String query,
+                                           @RequestParam(required = false) Integer limit) {
+        try {
+            ParcelSearchResult result = parcelService.searchParcels(query, limit);
+            return new ResponseEntity<>(result, HttpStatus.OK);
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(
+                new ErrorResponse(e.getMessage()),
+                HttpStatus.BAD_REQUEST
+            );
+        }
+    }
+
+    // Get search index size
+    @GetMapping("/search/stats")
+    public ResponseEntity<Map<String, Object>> getSearchIndexStats() {
+        return new ResponseEntity<>(parcelService.getSearchIndexStats(), HttpStatus.OK);
+    }
+
+    // Rebuild the search index from the database
+    @PostMapping("/search/rebuild")
+    public ResponseEntity<Map<String, Object>> rebuildSearchIndex() {
+        return new ResponseEntity<>(parcelService.rebuildSearchIndex(), HttpStatus.OK);
+    }
+
+    // Move many parcels (by id or tracking number) to one status, e.g. a hub scan; results are per item
+    @PatchMapping("/bulk/status")
+    public ResponseEntity<?> updateParcelStatuses(@Valid @RequestBody BulkStatusRequest request) {
+        try {
+            BulkParcelResponse response = bulkStatusService.transition(request);
+            return new ResponseEntity<>(response, HttpStatus.OK);
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(
+                new ErrorResponse(e.getMessage()),
+                HttpStatus.BAD_REQUEST
+            );
+        }
+    }
+
+    // Get the tracking history of a parcel, oldest first
+    @GetMapping("/{id}/history")
+    public ResponseEntity<?> getParcelHistory(@PathVariable Long id) {
+        try {
+            List<ParcelStatusEntry> history = parcelService.getStatusHistory(id);
+            return new ResponseEntity<>(history, HttpStatus.OK);
+        } catch (RuntimeException e) {
+            return new ResponseEntity<>(new ErrorResponse(e.getMessage()), HttpStatus.NOT_FOUND);
+        }
+    }
+
     // Update parcel status
     @PatchMapping("/{id}/status")
     public ResponseEntity<?> updateParcelStatus(
             @PathVariable Long id,
             @RequestBody StatusUpdateRequest request) {
         try {
-            Parcel parcel = parcelService.updateParcelStatus(id, request.getStatus());
-            return new ResponseEntity<>(parcel, HttpStatus.OK);
+            Parcel parcel = parcelService.updateParcelStatus(id, request.getStatus(), request.getLocation());
+            return withETag(parcel);
+        } catch (OptimisticLockingFailureException e) {
+            return new ResponseEntity<>(
+                new ErrorResponse("Parcel " + id + " is being updated concurrently; retry the request"),
+                HttpStatus.CONFLICT
+            );
         } catch (RuntimeException e) {
             return new ResponseEntity<>(
                 new ErrorResponse(e.getMessage()),
@@ -111,14 +345,68 @@ public class ParcelController {
         }
     }
 
-    // Update parcel
+    // Update parcel; with If-Match (the ETag of a previous read) the update only applies to that version
     @PutMapping("/{id}")
     public ResponseEntity<?> updateParcel(
             @PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
             @Valid @RequestBody ParcelRequest request) {
+        Long expectedVersion = null;
+        if (ifMatch != null && !ifMatch.trim().equals("*")) {
+            expectedVersion = parseETag(ifMatch);
+            if (expectedVersion == null) {
+                return new ResponseEntity<>(
+                    new ErrorResponse("If-Match does not match the current version of parcel " + id),
+                    HttpStatus.PRECONDITION_FAILED
+                );
+            }
+        }
+        try {
+            Parcel parcel = parcelService.updateParcel(id, request, expectedVersion);
+            return withETag(parcel);
+        } catch (OptimisticLockingFailureException e) {
+            // With If-Match the client's copy is stale; without it another write won the race
+            return new ResponseEntity<>(
+                new ErrorResponse("Parcel " + id + " was modified by another request; fetch it and retry"),
+                ifMatch != null ? HttpStatus.PRECONDITION_FAILED : HttpStatus.CONFLICT
+            );
+        } catch (RuntimeException e) {
+            return new ResponseEntity<>(
+                new ErrorResponse(e.getMessage()),
+                HttpStatus.NOT_FOUND
+            );
+        }
+    }
+
+    // Partially update a parcel with a JSON Merge Patch (RFC 7396): only the supplied fields change
+    @PatchMapping(value = "/{id}", consumes = {"application/merge-patch+json", MediaType.APPLICATION_JSON_VALUE})
+    public ResponseEntity<?> patchParcel(
+            @PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+            @RequestBody JsonNode patch) {
+        Long expectedVersion = null;
+        if (ifMatch != null && !ifMatch.trim().equals("*")) {
+            expectedVersion = parseETag(ifMatch);
+            if (expectedVersion == null) {
+                return new ResponseEntity<>(
+                    new ErrorResponse("If-Match does not match the current version of parcel " + id),
+                    HttpStatus.PRECONDITION_FAILED
+                );
+            }
+        }
         try {
-            Parcel parcel = parcelService.updateParcel(id, request);
-            return new ResponseEntity<>(parcel, HttpStatus.OK);
+            Parcel parcel = parcelService.patchParcel(id, patch, expectedVersion);
+            return withETag(parcel);
+        } catch (OptimisticLockingFailureException e) {
+            return new ResponseEntity<>(
+                new ErrorResponse("Parcel " + id + " was modified by another request; fetch it and retry"),
+                ifMatch != null ? HttpStatus.PRECONDITION_FAILED : HttpStatus.CONFLICT
+            );
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(
+                new ErrorResponse(e.getMessage()),
+                HttpStatus.BAD_REQUEST
+            );
         } catch (RuntimeException e) {
             return new ResponseEntity<>(
                 new ErrorResponse(e.getMessage()),
@@ -144,6 +432,31 @@ public class ParcelController {
         }
     }
 
+    // The entity version is the ETag, so a client can send it back as If-Match
+    private static ResponseEntity<Parcel> withETag(Parcel parcel) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (parcel.getVersion() != null) {
+            response.eTag("\"" + parcel.getVersion() + "\"");
+        }
+        return response.body(parcel);
+    }
+
+    // Accepts "3" and W/"3"; returns null for anything that cannot be one of our ETags
+    private static Long parseETag(String header) {
+        String value = header.trim();
+        if (value.startsWith("W/")) {
+            value = value.substring(2);
+        }
+        if (value.length() >= 2 && value.startsWith("\"") && value.endsWith("\"")) {
+            value = value.substring(1, value.length() - 1);
+        }
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
     // Inner classes for responses
     static class ErrorResponse {
         private String error;
@@ -180,6 +493,9 @@ public class ParcelController {
     static class StatusUpdateRequest {
         private Parcel.ParcelStatus status;
 
+        // Optional, recorded in the tracking history only
+        private String location;
+
         public Parcel.ParcelStatus getStatus() {
             return status;
         }
@@ -187,6 +503,14 @@ public class ParcelController {
         public void setStatus(Parcel.ParcelStatus status) {
             this.status = status;
         }
+
+        public String getLocation() {
+            return location;
+        }
+
+        public void setLocation(String location) {
+            this.location = location;
+        }
     }
 }
 
@@ -0,0 +1,98 @@
+package com.online_ordering.online_ordering.controller;
+
+import com.online_ordering.online_ordering.controller.ParcelController.ErrorResponse;
+import com.online_ordering.online_ordering.dto.QuoteRequest;
+import com.online_ordering.online_ordering.dto.QuoteResponse;
+import com.online_ordering.online_ordering.dto.RateCard;
+import com.online_ordering.online_ordering.service.ShippingRateEngine;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Valid;
+import jakarta.validation.Validator;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+@RestController
+@RequestMapping("/api/rates")
+@CrossOrigin(origins = "*")
+public class RateController {
+
+    @Autowired
+    private ShippingRateEngine shippingRateEngine;
+
+    @Autowired
+    private Validator validator;
+
+    @Value("${parcels.rates.max-batch:10000}")
+    private int maxBatch;
+
+    // Get the rate card currently in effect
+    @GetMapping
+    public ResponseEntity<RateCard> getRateCard() {
+        return new ResponseEntity<>(shippingRateEngine.getRateCard(), HttpStatus.OK);
+    }
+
+    // Re-read the rate card from storage; an invalid card is rejected and the current one kept
+    @PostMapping("/reload")
+    public ResponseEntity<?> reloadRateCard() {
+        try {
+            return new ResponseEntity<>(shippingRateEngine.reload(), HttpStatus.OK);
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(
+                new ErrorResponse("Rate card not reloaded: " + e.getMessage()),
+                HttpStatus.UNPROCESSABLE_ENTITY
+            );
+        }
+    }
+
+    // Price one parcel without booking it
+    @PostMapping("/quote")
+    public ResponseEntity<?> quote(@Valid @RequestBody QuoteRequest request) {
+        try {
+            return new ResponseEntity<>(shippingRateEngine.quote(request), HttpStatus.OK);
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(
+                new ErrorResponse(e.getMessage()),
+                HttpStatus.BAD_REQUEST
+            );
+        }
+    }
+
+    // Price a basket of parcels in one round trip; results are in request order
+    @PostMapping("/quote/batch")
+    public ResponseEntity<?> quoteBatch(@RequestBody List<QuoteRequest> requests) {
+        if (requests.size() > maxBatch) {
+            return new ResponseEntity<>(
+                new ErrorResponse("Quote batch has " + requests.size() + " items; the maximum is " + maxBatch),
+                HttpStatus.BAD_REQUEST
+            );
+        }
+        List<QuoteResponse> quotes = new ArrayList<>(requests.size());
+        for (int i = 0; i < requests.size(); i++) {
+            QuoteRequest request = requests.get(i);
+            Set<ConstraintViolation<QuoteRequest>> violations = validator.validate(request);
+            if (!violations.isEmpty()) {
+                ConstraintViolation<QuoteRequest> violation = violations.iterator().next();
+                return new ResponseEntity<>(
+                    new ErrorResponse("Item " + i + ": " + violation.getPropertyPath() + ": " + violation.getMessage()),
+                    HttpStatus.BAD_REQUEST
+                );
+            }
+            try {
+                quotes.add(shippingRateEngine.quote(request));
+            } catch (IllegalArgumentException e) {
+                return new ResponseEntity<>(
+                    new ErrorResponse("Item " + i + ": " + e.getMessage()),
+                    HttpStatus.BAD_REQUEST
+                );
+            }
+        }
+        return new ResponseEntity<>(quotes, HttpStatus.OK);
+    }
+}
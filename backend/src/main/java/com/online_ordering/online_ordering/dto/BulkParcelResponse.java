@@ -0,0 +1,63 @@
+package com.online_ordering.online_ordering.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Summary plus per-item results of a bulk booking or bulk status request
+public class BulkParcelResponse {
+
+    private int total;
+
+    private int succeeded;
+
+    private int failed;
+
+    private List<BulkParcelResult> results = new ArrayList<>();
+
+    // Constructors
+    public BulkParcelResponse() {
+    }
+
+    public void add(BulkParcelResult result) {
+        results.add(result);
+        total++;
+        if (result.isSuccess()) {
+            succeeded++;
+        } else {
+            failed++;
+        }
+    }
+
+    // Getters and Setters
+    public int getTotal() {
+        return total;
+    }
+
+    public void setTotal(int total) {
+        this.total = total;
+    }
+
+    public int getSucceeded() {
+        return succeeded;
+    }
+
+    public void setSucceeded(int succeeded) {
+        this.succeeded = succeeded;
+    }
+
+    public int getFailed() {
+        return failed;
+    }
+
+    public void setFailed(int failed) {
+        this.failed = failed;
+    }
+
+    public List<BulkParcelResult> getResults() {
+        return results;
+    }
+
+    public void setResults(List<BulkParcelResult> results) {
+        this.results = results;
+    }
+}
@@ -0,0 +1,111 @@
+package com.online_ordering.online_ordering.dto;
+
+import com.online_ordering.online_ordering.entity.Parcel;
+
+import java.util.List;
+
+// Outcome of a single item in a bulk booking or bulk status request
+public class BulkParcelResult {
+
+    // Position of the item in the submitted array or NDJSON stream (0-based)
+    private int index;
+
+    private boolean success;
+
+    private Long id;
+
+    private String trackingNumber;
+
+    // Bulk status requests only: the status before and after the item was applied
+    private Parcel.ParcelStatus previousStatus;
+
+    private Parcel.ParcelStatus status;
+
+    private List<String> errors;
+
+    // Constructors
+    public BulkParcelResult() {
+    }
+
+    public static BulkParcelResult success(int index, Long id, String trackingNumber) {
+        BulkParcelResult result = new BulkParcelResult();
+        result.index = index;
+        result.success = true;
+        result.id = id;
+        result.trackingNumber = trackingNumber;
+        return result;
+    }
+
+    public static BulkParcelResult transitioned(int index, Long id, String trackingNumber,
+                                                Parcel.ParcelStatus previousStatus, Parcel.ParcelStatus status) {
+        BulkParcelResult result = success(index, id, trackingNumber);
+        result.previousStatus = previousStatus;
+        result.status = status;
+        return result;
+    }
+
+    public static BulkParcelResult failure(int index, List<String> errors) {
+        BulkParcelResult result = new BulkParcelResult();
+        result.index = index;
+        result.success = false;
+        result.errors = errors;
+        return result;
+    }
+
+    // Getters and Setters
+    public int getIndex() {
+        return index;
+    }
+
+    public void setIndex(int index) {
+        this.index = index;
+    }
+
+    public boolean isSuccess() {
+        return success;
+    }
+
+    public void setSuccess(boolean success) {
+        this.success = success;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getTrackingNumber() {
+        return trackingNumber;
+    }
+
+    public void setTrackingNumber(String trackingNumber) {
+        this.trackingNumber = trackingNumber;
+    }
+
+    public Parcel.ParcelStatus getPreviousStatus() {
+        return previousStatus;
+    }
+
+    public void setPreviousStatus(Parcel.ParcelStatus previousStatus) {
+        this.previousStatus = previousStatus;
+    }
+
+    public Parcel.ParcelStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(Parcel.ParcelStatus status) {
+        this.status = status;
+    }
+
+    public List<String> getErrors() {
+        return errors;
+    }
+
+    public void setErrors(List<String> errors) {
+        this.errors = errors;
+    }
+}
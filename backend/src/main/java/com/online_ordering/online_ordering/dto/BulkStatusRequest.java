@@ -0,0 +1,57 @@
+package com.online_ordering.online_ordering.dto;
+
+import com.online_ordering.online_ordering.entity.Parcel;
+import jakarta.validation.constraints.NotNull;
+
+import java.util.List;
+
+// Moves many parcels, identified either by id or by tracking number, to one target status
+public class BulkStatusRequest {
+
+    private List<Long> ids;
+
+    private List<String> trackingNumbers;
+
+    @NotNull(message = "Status is required")
+    private Parcel.ParcelStatus status;
+
+    // Optional, recorded in the tracking history of every parcel that changes
+    private String location;
+
+    // Constructors
+    public BulkStatusRequest() {
+    }
+
+    // Getters and Setters
+    public List<Long> getIds() {
+        return ids;
+    }
+
+    public void setIds(List<Long> ids) {
+        this.ids = ids;
+    }
+
+    public List<String> getTrackingNumbers() {
+        return trackingNumbers;
+    }
+
+    public void setTrackingNumbers(List<String> trackingNumbers) {
+        this.trackingNumbers = trackingNumbers;
+    }
+
+    public Parcel.ParcelStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(Parcel.ParcelStatus status) {
+        this.status = status;
+    }
+
+    public String getLocation() {
+        return location;
+    }
+
+    public void setLocation(String location) {
+        this.location = location;
+    }
+}
@@ -0,0 +1,53 @@
+package com.online_ordering.online_ordering.dto;
+
+import java.util.List;
+
+// One keyset page of results plus the opaque cursor for the next page
+public class ParcelPage<T> {
+
+    private List<T> items;
+
+    private int size;
+
+    // Null when there are no further pages
+    private String nextCursor;
+
+    // Constructors
+    public ParcelPage() {
+    }
+
+    public ParcelPage(List<T> items, int size, String nextCursor) {
+        this.items = items;
+        this.size = size;
+        this.nextCursor = nextCursor;
+    }
+
+    // Getters and Setters
+    public List<T> getItems() {
+        return items;
+    }
+
+    public void setItems(List<T> items) {
+        this.items = items;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public void setSize(int size) {
+        this.size = size;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+
+    public boolean isHasMore() {
+        return nextCursor != null;
+    }
+}
@@ -0,0 +1,37 @@
+package com.online_ordering.online_ordering.dto;
+
+import java.util.List;
+
+// Search hits, newest first, plus the number of parcels that matched in total
+public class ParcelSearchResult {
+
+    private List<ParcelSummary> items;
+
+    private int total;
+
+    // Constructors
+    public ParcelSearchResult() {
+    }
+
+    public ParcelSearchResult(List<ParcelSummary> items, int total) {
+        this.items = items;
+        this.total = total;
+    }
+
+    // Getters and Setters
+    public List<ParcelSummary> getItems() {
+        return items;
+    }
+
+    public void setItems(List<ParcelSummary> items) {
+        this.items = items;
+    }
+
+    public int getTotal() {
+        return total;
+    }
+
+    public void setTotal(int total) {
+        this.total = total;
+    }
+}
@@ -0,0 +1,64 @@
+package com.online_ordering.online_ordering.dto;
+
+import com.online_ordering.online_ordering.entity.Parcel;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+// Parcel counts per status and delivery type, served from in-memory counters
+public class ParcelStats {
+
+    private long total;
+
+    private Map<Parcel.ParcelStatus, Long> byStatus;
+
+    private Map<Parcel.DeliveryType, Long> byDeliveryType;
+
+    // When the counters were last corrected against the database
+    private LocalDateTime reconciledAt;
+
+    // Constructors
+    public ParcelStats() {
+    }
+
+    public ParcelStats(long total, Map<Parcel.ParcelStatus, Long> byStatus,
+                       Map<Parcel.DeliveryType, Long> byDeliveryType, LocalDateTime reconciledAt) {
+        this.total = total;
+        this.byStatus = byStatus;
+        this.byDeliveryType = byDeliveryType;
+        this.reconciledAt = reconciledAt;
+    }
+
+    // Getters and Setters
+    public long getTotal() {
+        return total;
+    }
+
+    public void setTotal(long total) {
+        this.total = total;
+    }
+
+    public Map<Parcel.ParcelStatus, Long> getByStatus() {
+        return byStatus;
+    }
+
+    public void setByStatus(Map<Parcel.ParcelStatus, Long> byStatus) {
+        this.byStatus = byStatus;
+    }
+
+    public Map<Parcel.DeliveryType, Long> getByDeliveryType() {
+        return byDeliveryType;
+    }
+
+    public void setByDeliveryType(Map<Parcel.DeliveryType, Long> byDeliveryType) {
+        this.byDeliveryType = byDeliveryType;
+    }
+
+    public LocalDateTime getReconciledAt() {
+        return reconciledAt;
+    }
+
+    public void setReconciledAt(LocalDateTime reconciledAt) {
+        this.reconciledAt = reconciledAt;
+    }
+}
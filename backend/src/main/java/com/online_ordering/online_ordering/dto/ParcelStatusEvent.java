@@ -0,0 +1,73 @@
+package com.online_ordering.online_ordering.dto;
+
+import com.online_ordering.online_ordering.entity.Parcel;
+
+import java.time.LocalDateTime;
+
+// Payload of a "status" server-sent event; carries no contact details so tracking subscribers see only the change
+public class ParcelStatusEvent {
+
+    private Long parcelId;
+
+    private String trackingNumber;
+
+    private Parcel.ParcelStatus previousStatus;
+
+    private Parcel.ParcelStatus status;
+
+    private LocalDateTime changedAt;
+
+    // Constructors
+    public ParcelStatusEvent() {
+    }
+
+    public ParcelStatusEvent(Long parcelId, String trackingNumber, Parcel.ParcelStatus previousStatus,
+                             Parcel.ParcelStatus status, LocalDateTime changedAt) {
+        this.parcelId = parcelId;
+        this.trackingNumber = trackingNumber;
+        this.previousStatus = previousStatus;
+        this.status = status;
+        this.changedAt = changedAt;
+    }
+
+    // Getters and Setters
+    public Long getParcelId() {
+        return parcelId;
+    }
+
+    public void setParcelId(Long parcelId) {
+        this.parcelId = parcelId;
+    }
+
+    public String getTrackingNumber() {
+        return trackingNumber;
+    }
+
+    public void setTrackingNumber(String trackingNumber) {
+        this.trackingNumber = trackingNumber;
+    }
+
+    public Parcel.ParcelStatus getPreviousStatus() {
+        return previousStatus;
+    }
+
+    public void setPreviousStatus(Parcel.ParcelStatus previousStatus) {
+        this.previousStatus = previousStatus;
+    }
+
+    public Parcel.ParcelStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(Parcel.ParcelStatus status) {
+        this.status = status;
+    }
+
+    public LocalDateTime getChangedAt() {
+        return changedAt;
+    }
+
+    public void setChangedAt(LocalDateTime changedAt) {
+        this.changedAt = changedAt;
+    }
+}
@@ -0,0 +1,54 @@
+package com.online_ordering.online_ordering.dto;
+
+import com.online_ordering.online_ordering.entity.Parcel;
+
+// The columns a status transition needs, read without loading the whole parcel
+public class ParcelStatusRow {
+
+    private final Long id;
+
+    private final String trackingNumber;
+
+    private final Parcel.ParcelStatus status;
+
+    private final Parcel.DeliveryType deliveryType;
+
+    private final String senderEmail;
+
+    private final String recipientEmail;
+
+    public ParcelStatusRow(Long id, String trackingNumber, Parcel.ParcelStatus status,
+                           Parcel.DeliveryType deliveryType, String senderEmail, String recipientEmail) {
+        this.id = id;
+        this.trackingNumber = trackingNumber;
+        this.status = status;
+        this.deliveryType = deliveryType;
+        this.senderEmail = senderEmail;
+        this.recipientEmail = recipientEmail;
+    }
+
+    // Getters
+    public Long getId() {
+        return id;
+    }
+
+    public String getTrackingNumber() {
+        return trackingNumber;
+    }
+
+    public Parcel.ParcelStatus getStatus() {
+        return status;
+    }
+
+    public Parcel.DeliveryType getDeliveryType() {
+        return deliveryType;
+    }
+
+    public String getSenderEmail() {
+        return senderEmail;
+    }
+
+    public String getRecipientEmail() {
+        return recipientEmail;
+    }
+}
@@ -0,0 +1,109 @@
+package com.online_ordering.online_ordering.dto;
+
+import com.online_ordering.online_ordering.entity.Parcel;
+
+import java.time.LocalDateTime;
+
+// Read-only list view of a parcel: no addresses, phones, emails or description
+public class ParcelSummary {
+
+    private final Long id;
+
+    private final String trackingNumber;
+
+    private final String senderName;
+
+    private final String recipientName;
+
+    private final Parcel.ParcelType parcelType;
+
+    private final Parcel.DeliveryType deliveryType;
+
+    private final Parcel.ParcelStatus status;
+
+    private final Double weight;
+
+    private final Double shippingCost;
+
+    private final LocalDateTime estimatedDeliveryDate;
+
+    private final LocalDateTime actualDeliveryDate;
+
+    private final LocalDateTime createdAt;
+
+    private final LocalDateTime updatedAt;
+
+    // Constructor used by the JPQL "SELECT new ..." projections in ParcelRepository
+    public ParcelSummary(Long id, String trackingNumber, String senderName, String recipientName,
+                         Parcel.ParcelType parcelType, Parcel.DeliveryType deliveryType,
+                         Parcel.ParcelStatus status, Double weight, Double shippingCost,
+                         LocalDateTime estimatedDeliveryDate, LocalDateTime actualDeliveryDate,
+                         LocalDateTime createdAt, LocalDateTime updatedAt) {
+        this.id = id;
+        this.trackingNumber = trackingNumber;
+        this.senderName = senderName;
+        this.recipientName = recipientName;
+        this.parcelType = parcelType;
+        this.deliveryType = deliveryType;
+        this.status = status;
+        this.weight = weight;
+        this.shippingCost = shippingCost;
+        this.estimatedDeliveryDate = estimatedDeliveryDate;
+        this.actualDeliveryDate = actualDeliveryDate;
+        this.createdAt = createdAt;
+        this.updatedAt = updatedAt;
+    }
+
+    // Getters
+    public Long getId() {
+        return id;
+    }
+
+    public String getTrackingNumber() {
+        return trackingNumber;
+    }
+
+    public String getSenderName() {
+        return senderName;
+    }
+
+    public String getRecipientName() {
+        return recipientName;
+    }
+
+    public Parcel.ParcelType getParcelType() {
+        return parcelType;
+    }
+
+    public Parcel.DeliveryType getDeliveryType() {
+        return deliveryType;
+    }
+
+    public Parcel.ParcelStatus getStatus() {
+        return status;
+    }
+
+    public Double getWeight() {
+        return weight;
+    }
+
+    public Double getShippingCost() {
+        return shippingCost;
+    }
+
+    public LocalDateTime getEstimatedDeliveryDate() {
+        return estimatedDeliveryDate;
+    }
+
+    public LocalDateTime getActualDeliveryDate() {
+        return actualDeliveryDate;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+}
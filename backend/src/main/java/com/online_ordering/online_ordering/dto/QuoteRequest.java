@@ -0,0 +1,95 @@
+package com.online_ordering.online_ordering.dto;
+
+import com.online_ordering.online_ordering.entity.Parcel;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+
+// What a quote needs from a parcel; nothing is stored
+public class QuoteRequest {
+
+    @NotNull(message = "Weight is required")
+    @Positive(message = "Weight must be positive")
+    private Double weight;
+
+    @NotNull(message = "Length is required")
+    @Positive(message = "Length must be positive")
+    private Double length;
+
+    @NotNull(message = "Width is required")
+    @Positive(message = "Width must be positive")
+    private Double width;
+
+    @NotNull(message = "Height is required")
+    @Positive(message = "Height must be positive")
+    private Double height;
+
+    @NotNull(message = "Parcel type is required")
+    private Parcel.ParcelType parcelType;
+
+    @NotNull(message = "Delivery type is required")
+    private Parcel.DeliveryType deliveryType;
+
+    // Optional; the rate card's default zone when absent
+    private String zone;
+
+    // Constructors
+    public QuoteRequest() {
+    }
+
+    // Getters and Setters
+    public Double getWeight() {
+        return weight;
+    }
+
+    public void setWeight(Double weight) {
+        this.weight = weight;
+    }
+
+    public Double getLength() {
+        return length;
+    }
+
+    public void setLength(Double length) {
+        this.length = length;
+    }
+
+    public Double getWidth() {
+        return width;
+    }
+
+    public void setWidth(Double width) {
+        this.width = width;
+    }
+
+    public Double getHeight() {
+        return height;
+    }
+
+    public void setHeight(Double height) {
+        this.height = height;
+    }
+
+    public Parcel.ParcelType getParcelType() {
+        return parcelType;
+    }
+
+    public void setParcelType(Parcel.ParcelType parcelType) {
+        this.parcelType = parcelType;
+    }
+
+    public Parcel.DeliveryType getDeliveryType() {
+        return deliveryType;
+    }
+
+    public void setDeliveryType(Parcel.DeliveryType deliveryType) {
+        this.deliveryType = deliveryType;
+    }
+
+    public String getZone() {
+        return zone;
+    }
+
+    public void setZone(String zone) {
+        this.zone = zone;
+    }
+}
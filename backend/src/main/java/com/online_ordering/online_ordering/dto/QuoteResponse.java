@@ -0,0 +1,58 @@
+package com.online_ordering.online_ordering.dto;
+
+// Price of one quoted parcel and the inputs the rate card resolved for it
+public class QuoteResponse {
+
+    private double shippingCost;
+
+    // Greater of actual and volumetric weight, in kg
+    private double chargeableWeight;
+
+    private String zone;
+
+    private String rateCardVersion;
+
+    // Constructors
+    public QuoteResponse() {
+    }
+
+    public QuoteResponse(double shippingCost, double chargeableWeight, String zone, String rateCardVersion) {
+        this.shippingCost = shippingCost;
+        this.chargeableWeight = chargeableWeight;
+        this.zone = zone;
+        this.rateCardVersion = rateCardVersion;
+    }
+
+    // Getters and Setters
+    public double getShippingCost() {
+        return shippingCost;
+    }
+
+    public void setShippingCost(double shippingCost) {
+        this.shippingCost = shippingCost;
+    }
+
+    public double getChargeableWeight() {
+        return chargeableWeight;
+    }
+
+    public void setChargeableWeight(double chargeableWeight) {
+        this.chargeableWeight = chargeableWeight;
+    }
+
+    public String getZone() {
+        return zone;
+    }
+
+    public void setZone(String zone) {
+        this.zone = zone;
+    }
+
+    public String getRateCardVersion() {
+        return rateCardVersion;
+    }
+
+    public void setRateCardVersion(String rateCardVersion) {
+        this.rateCardVersion = rateCardVersion;
+    }
+}
@@ -0,0 +1,108 @@
+package com.online_ordering.online_ordering.dto;
+
+import com.online_ordering.online_ordering.entity.Parcel;
+
+import java.util.List;
+import java.util.Map;
+
+// Shipping rate card as stored (rates/rate-card.json by default):
+// price = (base + perKg x chargeable weight) x delivery multiplier + parcel type surcharge,
+// where the zone's first bracket whose upToKg covers the chargeable weight supplies base and perKg
+public class RateCard {
+
+    private String version;
+
+    private String defaultZone;
+
+    // Volumetric divisor in cm3 per kg; chargeable weight is max(weight, length x width x height / divisor)
+    private double dimensionalDivisor;
+
+    // Brackets per zone, ascending by upToKg; the last one has no upper bound (upToKg null)
+    private Map<String, List<WeightBracket>> zones;
+
+    private Map<Parcel.DeliveryType, Double> deliveryMultipliers;
+
+    private Map<Parcel.ParcelType, Double> parcelTypeSurcharges;
+
+    public static class WeightBracket {
+
+        private Double upToKg;
+
+        private double base;
+
+        private double perKg;
+
+        public Double getUpToKg() {
+            return upToKg;
+        }
+
+        public void setUpToKg(Double upToKg) {
+            this.upToKg = upToKg;
+        }
+
+        public double getBase() {
+            return base;
+        }
+
+        public void setBase(double base) {
+            this.base = base;
+        }
+
+        public double getPerKg() {
+            return perKg;
+        }
+
+        public void setPerKg(double perKg) {
+            this.perKg = perKg;
+        }
+    }
+
+    // Getters and Setters
+    public String getVersion() {
+        return version;
+    }
+
+    public void setVersion(String version) {
+        this.version = version;
+    }
+
+    public String getDefaultZone() {
+        return defaultZone;
+    }
+
+    public void setDefaultZone(String defaultZone) {
+        this.defaultZone = defaultZone;
+    }
+
+    public double getDimensionalDivisor() {
+        return dimensionalDivisor;
+    }
+
+    public void setDimensionalDivisor(double dimensionalDivisor) {
+        this.dimensionalDivisor = dimensionalDivisor;
+    }
+
+    public Map<String, List<WeightBracket>> getZones() {
+        return zones;
+    }
+
+    public void setZones(Map<String, List<WeightBracket>> zones) {
+        this.zones = zones;
+    }
+
+    public Map<Parcel.DeliveryType, Double> getDeliveryMultipliers() {
+        return deliveryMultipliers;
+    }
+
+    public void setDeliveryMultipliers(Map<Parcel.DeliveryType, Double> deliveryMultipliers) {
+        this.deliveryMultipliers = deliveryMultipliers;
+    }
+
+    public Map<Parcel.ParcelType, Double> getParcelTypeSurcharges() {
+        return parcelTypeSurcharges;
+    }
+
+    public void setParcelTypeSurcharges(Map<Parcel.ParcelType, Double> parcelTypeSurcharges) {
+        this.parcelTypeSurcharges = parcelTypeSurcharges;
+    }
+}
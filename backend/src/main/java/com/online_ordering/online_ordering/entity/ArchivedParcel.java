@@ -0,0 +1,312 @@
+package com.online_ordering.online_ordering.entity;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.Immutable;
+
+import java.time.LocalDateTime;
+
+// A terminal (delivered, cancelled or returned) parcel moved out of the parcels table by ParcelArchiver. Same columns
+// as Parcel plus archivedAt; rows are written by one INSERT ... SELECT per batch and never updated.
+@Entity
+@Immutable
+@Table(name = "parcels_archive", indexes = {
+    @Index(name = "idx_parcels_archive_sender_email", columnList = "senderEmail"),
+    @Index(name = "idx_parcels_archive_recipient_email", columnList = "recipientEmail")
+})
+public class ArchivedParcel {
+
+    // The id the parcel had in the parcels table, so its status history still matches
+    @Id
+    private Long id;
+
+    @Column(unique = true, nullable = false)
+    private String trackingNumber;
+
+    private String senderName;
+
+    private String senderEmail;
+
+    private String senderPhone;
+
+    @Column(length = 500)
+    private String senderAddress;
+
+    private String recipientName;
+
+    private String recipientEmail;
+
+    private String recipientPhone;
+
+    @Column(length = 500)
+    private String recipientAddress;
+
+    private Double weight;
+
+    private Double length;
+
+    private Double width;
+
+    private Double height;
+
+    @Column(length = 1000)
+    private String description;
+
+    @Enumerated(EnumType.STRING)
+    private Parcel.ParcelType parcelType;
+
+    @Enumerated(EnumType.STRING)
+    private Parcel.DeliveryType deliveryType;
+
+    @Enumerated(EnumType.STRING)
+    private Parcel.ParcelStatus status;
+
+    private Double shippingCost;
+
+    private LocalDateTime estimatedDeliveryDate;
+
+    private LocalDateTime actualDeliveryDate;
+
+    private LocalDateTime createdAt;
+
+    private LocalDateTime updatedAt;
+
+    private Long version;
+
+    @Column(nullable = false)
+    private LocalDateTime archivedAt;
+
+    // Constructors
+    public ArchivedParcel() {
+    }
+
+    // The archived parcel as served by tracking lookups
+    public Parcel toParcel() {
+        Parcel parcel = new Parcel();
+        parcel.setId(id);
+        parcel.setTrackingNumber(trackingNumber);
+        parcel.setSenderName(senderName);
+        parcel.setSenderEmail(senderEmail);
+        parcel.setSenderPhone(senderPhone);
+        parcel.setSenderAddress(senderAddress);
+        parcel.setRecipientName(recipientName);
+        parcel.setRecipientEmail(recipientEmail);
+        parcel.setRecipientPhone(recipientPhone);
+        parcel.setRecipientAddress(recipientAddress);
+        parcel.setWeight(weight);
+        parcel.setLength(length);
+        parcel.setWidth(width);
+        parcel.setHeight(height);
+        parcel.setDescription(description);
+        parcel.setParcelType(parcelType);
+        parcel.setDeliveryType(deliveryType);
+        parcel.setStatus(status);
+        parcel.setShippingCost(shippingCost);
+        parcel.setEstimatedDeliveryDate(estimatedDeliveryDate);
+        parcel.setActualDeliveryDate(actualDeliveryDate);
+        parcel.setCreatedAt(createdAt);
+        parcel.setUpdatedAt(updatedAt);
+        parcel.setVersion(version);
+        return parcel;
+    }
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getTrackingNumber() {
+        return trackingNumber;
+    }
+
+    public void setTrackingNumber(String trackingNumber) {
+        this.trackingNumber = trackingNumber;
+    }
+
+    public String getSenderName() {
+        return senderName;
+    }
+
+    public void setSenderName(String senderName) {
+        this.senderName = senderName;
+    }
+
+    public String getSenderEmail() {
+        return senderEmail;
+    }
+
+    public void setSenderEmail(String senderEmail) {
+        this.senderEmail = senderEmail;
+    }
+
+    public String getSenderPhone() {
+        return senderPhone;
+    }
+
+    public void setSenderPhone(String senderPhone) {
+        this.senderPhone = senderPhone;
+    }
+
+    public String getSenderAddress() {
+        return senderAddress;
+    }
+
+    public void setSenderAddress(String senderAddress) {
+        this.senderAddress = senderAddress;
+    }
+
+    public String getRecipientName() {
+        return recipientName;
+    }
+
+    public void setRecipientName(String recipientName) {
+        this.recipientName = recipientName;
+    }
+
+    public String getRecipientEmail() {
+        return recipientEmail;
+    }
+
+    public void setRecipientEmail(String recipientEmail) {
+        this.recipientEmail = recipientEmail;
+    }
+
+    public String getRecipientPhone() {
+        return recipientPhone;
+    }
+
+    public void setRecipientPhone(String recipientPhone) {
+        this.recipientPhone = recipientPhone;
+    }
+
+    public String getRecipientAddress() {
+        return recipientAddress;
+    }
+
+    public void setRecipientAddress(String recipientAddress) {
+        this.recipientAddress = recipientAddress;
+    }
+
+    public Double getWeight() {
+        return weight;
+    }
+
+    public void setWeight(Double weight) {
+        this.weight = weight;
+    }
+
+    public Double getLength() {
+        return length;
+    }
+
+    public void setLength(Double length) {
+        this.length = length;
+    }
+
+    public Double getWidth() {
+        return width;
+    }
+
+    public void setWidth(Double width) {
+        this.width = width;
+    }
+
+    public Double getHeight() {
+        return height;
+    }
+
+    public void setHeight(Double height) {
+        this.height = height;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public void setDescription(String description) {
+        this.description = description;
+    }
+
+    public Parcel.ParcelType getParcelType() {
+        return parcelType;
+    }
+
+    public void setParcelType(Parcel.ParcelType parcelType) {
+        this.parcelType = parcelType;
+    }
+
+    public Parcel.DeliveryType getDeliveryType() {
+        return deliveryType;
+    }
+
+    public void setDeliveryType(Parcel.DeliveryType deliveryType) {
+        this.deliveryType = deliveryType;
+    }
+
+    public Parcel.ParcelStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(Parcel.ParcelStatus status) {
+        this.status = status;
+    }
+
+    public Double getShippingCost() {
+        return shippingCost;
+    }
+
+    public void setShippingCost(Double shippingCost) {
+        this.shippingCost = shippingCost;
+    }
+
+    public LocalDateTime getEstimatedDeliveryDate() {
+        return estimatedDeliveryDate;
+    }
+
+    public void setEstimatedDeliveryDate(LocalDateTime estimatedDeliveryDate) {
+        this.estimatedDeliveryDate = estimatedDeliveryDate;
+    }
+
+    public LocalDateTime getActualDeliveryDate() {
+        return actualDeliveryDate;
+    }
+
+    public void setActualDeliveryDate(LocalDateTime actualDeliveryDate) {
+        this.actualDeliveryDate = actualDeliveryDate;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
+    public LocalDateTime getArchivedAt() {
+        return archivedAt;
+    }
+
+    public void setArchivedAt(LocalDateTime archivedAt) {
+        this.archivedAt = archivedAt;
+    }
+}
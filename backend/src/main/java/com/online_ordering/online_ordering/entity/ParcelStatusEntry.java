@@ -0,0 +1,83 @@
+package com.online_ordering.online_ordering.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+// One row of a parcel's tracking timeline; rows are only ever inserted. Parcel.status keeps the current status.
+@Entity
+@Table(name = "parcel_status_events", indexes = {
+    @Index(name = "idx_parcel_status_events_parcel_occurred_at", columnList = "parcelId, occurredAt")
+})
+public class ParcelStatusEntry {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "parcel_status_events_seq")
+    @SequenceGenerator(name = "parcel_status_events_seq", sequenceName = "parcel_status_events_seq", allocationSize = 50)
+    private Long id;
+
+    // Plain column rather than a relationship, so appending never loads or locks the parcel row
+    @Column(nullable = false, updatable = false)
+    private Long parcelId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, updatable = false)
+    private Parcel.ParcelStatus status;
+
+    @Column(updatable = false)
+    private String location;
+
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime occurredAt;
+
+    // Constructors
+    public ParcelStatusEntry() {
+    }
+
+    public ParcelStatusEntry(Long parcelId, Parcel.ParcelStatus status, String location, LocalDateTime occurredAt) {
+        this.parcelId = parcelId;
+        this.status = status;
+        this.location = location;
+        this.occurredAt = occurredAt;
+    }
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getParcelId() {
+        return parcelId;
+    }
+
+    public void setParcelId(Long parcelId) {
+        this.parcelId = parcelId;
+    }
+
+    public Parcel.ParcelStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(Parcel.ParcelStatus status) {
+        this.status = status;
+    }
+
+    public String getLocation() {
+        return location;
+    }
+
+    public void setLocation(String location) {
+        this.location = location;
+    }
+
+    public LocalDateTime getOccurredAt() {
+        return occurredAt;
+    }
+
+    public void setOccurredAt(LocalDateTime occurredAt) {
+        this.occurredAt = occurredAt;
+    }
+}
@@ -0,0 +1,50 @@
+package com.online_ordering.online_ordering.health;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import org.springframework.boot.actuate.health.AbstractHealthIndicator;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+
+// Reports Hikari pool occupancy; DOWN only when the pool is closed. A saturated pool (every connection busy, callers
+// queued) is a load signal, not an outage: it stays UP with saturated=true, so a load balancer does not pull every
+// busy instance at once. Alert on hikaricp_connections_pending / _acquire_seconds instead.
+@Component("connectionPool")
+public class ConnectionPoolHealthIndicator extends AbstractHealthIndicator {
+
+    private final DataSource dataSource;
+
+    public ConnectionPoolHealthIndicator(DataSource dataSource) {
+        super("Connection pool health check failed");
+        this.dataSource = dataSource;
+    }
+
+    @Override
+    protected void doHealthCheck(Health.Builder builder) {
+        HikariDataSource hikari;
+        try {
+            hikari = dataSource.unwrap(HikariDataSource.class);
+        } catch (Exception e) {
+            builder.unknown().withDetail("reason", "DataSource is not a Hikari pool");
+            return;
+        }
+        HikariPoolMXBean pool = hikari.getHikariPoolMXBean();
+        if (hikari.isClosed() || pool == null) {
+            builder.down().withDetail("pool", hikari.getPoolName()).withDetail("reason", "Pool is not running");
+            return;
+        }
+
+        int active = pool.getActiveConnections();
+        int waiting = pool.getThreadsAwaitingConnection();
+        builder.up()
+            .withDetail("pool", hikari.getPoolName())
+            .withDetail("active", active)
+            .withDetail("idle", pool.getIdleConnections())
+            .withDetail("total", pool.getTotalConnections())
+            .withDetail("max", hikari.getMaximumPoolSize())
+            .withDetail("threadsAwaitingConnection", waiting)
+            .withDetail("saturated", active >= hikari.getMaximumPoolSize() && waiting > 0);
+    }
+}
@@ -0,0 +1,57 @@
+package com.online_ordering.online_ordering.repository;
+
+import com.online_ordering.online_ordering.dto.ParcelSummary;
+import com.online_ordering.online_ordering.entity.ArchivedParcel;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface ParcelArchiveRepository extends JpaRepository<ArchivedParcel, Long> {
+
+    // Read-only like ParcelRepository.findByTrackingNumber, so the archive fallback can use a replica too
+    @Transactional(readOnly = true)
+    Optional<ArchivedParcel> findByTrackingNumber(String trackingNumber);
+
+    String SUMMARY_SELECT = "SELECT new com.online_ordering.online_ordering.dto.ParcelSummary("
+        + "p.id, p.trackingNumber, p.senderName, p.recipientName, p.parcelType, p.deliveryType, "
+        + "p.status, p.weight, p.shippingCost, p.estimatedDeliveryDate, p.actualDeliveryDate, "
+        + "p.createdAt, p.updatedAt) FROM ArchivedParcel p ";
+
+    @Query(SUMMARY_SELECT + "WHERE p.senderEmail = :email")
+    List<ParcelSummary> findSummariesBySenderEmail(@Param("email") String email);
+
+    @Query(SUMMARY_SELECT + "WHERE p.recipientEmail = :email")
+    List<ParcelSummary> findSummariesByRecipientEmail(@Param("email") String email);
+
+    // Same UNION ALL shape as ParcelRepository.findSummariesByUserEmail
+    @Query(SUMMARY_SELECT + "WHERE p.senderEmail = :email "
+        + "UNION ALL "
+        + SUMMARY_SELECT + "WHERE p.recipientEmail = :email AND p.senderEmail <> :email")
+    List<ParcelSummary> findSummariesByUserEmail(@Param("email") String email);
+
+    // Rows of (status, deliveryType, count); archived parcels stay in the stats counters
+    @Query("SELECT p.status, p.deliveryType, COUNT(p) FROM ArchivedParcel p GROUP BY p.status, p.deliveryType")
+    List<Object[]> countByStatusAndDeliveryType();
+
+    // Copies the given parcels server-side, without loading them; the caller deletes them from parcels afterwards
+    @Modifying
+    @Query("INSERT INTO ArchivedParcel (id, trackingNumber, senderName, senderEmail, senderPhone, senderAddress, "
+        + "recipientName, recipientEmail, recipientPhone, recipientAddress, weight, length, width, height, "
+        + "description, parcelType, deliveryType, status, shippingCost, estimatedDeliveryDate, actualDeliveryDate, "
+        + "createdAt, updatedAt, version, archivedAt) "
+        + "SELECT p.id, p.trackingNumber, p.senderName, p.senderEmail, p.senderPhone, p.senderAddress, "
+        + "p.recipientName, p.recipientEmail, p.recipientPhone, p.recipientAddress, p.weight, p.length, p.width, "
+        + "p.height, p.description, p.parcelType, p.deliveryType, p.status, p.shippingCost, "
+        + "p.estimatedDeliveryDate, p.actualDeliveryDate, p.createdAt, p.updatedAt, p.version, :now "
+        + "FROM Parcel p WHERE p.id IN :ids")
+    int copyFromParcels(@Param("ids") Collection<Long> ids, @Param("now") LocalDateTime now);
+}
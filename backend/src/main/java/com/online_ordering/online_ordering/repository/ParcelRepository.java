@@ -1,23 +1,135 @@
 package com.online_ordering.online_ordering.repository;
 
+import com.online_ordering.online_ordering.dto.ParcelStatusRow;
+import com.online_ordering.online_ordering.dto.ParcelSummary;
 import com.online_ordering.online_ordering.entity.Parcel;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface ParcelRepository extends JpaRepository<Parcel, Long> {
-    
+
+    // Read-write rather than the inherited read-only default: every load-modify-save path starts here, and
+    // read-only transactions may be served by a lagging replica (see ReplicaRoutingConfig)
+    @Override
+    @Transactional
+    Optional<Parcel> findById(Long id);
+
+    // Read-only so tracking lookups can go to a replica: declared queries get no transaction of their own
+    @Transactional(readOnly = true)
     Optional<Parcel> findByTrackingNumber(String trackingNumber);
-    
-    List<Parcel> findBySenderEmail(String senderEmail);
-    
-    List<Parcel> findByRecipientEmail(String recipientEmail);
-    
-    List<Parcel> findByStatus(Parcel.ParcelStatus status);
-    
-    List<Parcel> findBySenderEmailOrRecipientEmail(String senderEmail, String recipientEmail);
-}
 
+    // With a created_at window around the time encoded in the tracking number, so a range-partitioned parcels
+    // table is pruned to the partition(s) covering it
+    @Transactional(readOnly = true)
+    Optional<Parcel> findByTrackingNumberAndCreatedAtBetween(String trackingNumber, LocalDateTime from,
+                                                              LocalDateTime to);
+
+    // List views select only the ParcelSummary columns; DTOs are never managed, so nothing is dirty-checked
+    String SUMMARY_SELECT = "SELECT new com.online_ordering.online_ordering.dto.ParcelSummary("
+        + "p.id, p.trackingNumber, p.senderName, p.recipientName, p.parcelType, p.deliveryType, "
+        + "p.status, p.weight, p.shippingCost, p.estimatedDeliveryDate, p.actualDeliveryDate, "
+        + "p.createdAt, p.updatedAt) FROM Parcel p ";
+
+    @Query(SUMMARY_SELECT + "WHERE p.senderEmail = :email")
+    List<ParcelSummary> findSummariesBySenderEmail(@Param("email") String email);
+
+    @Query(SUMMARY_SELECT + "WHERE p.recipientEmail = :email")
+    List<ParcelSummary> findSummariesByRecipientEmail(@Param("email") String email);
+
+    // Served from the query cache until any parcel is written (or parcels.l2-cache.query.ttl passes)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    @Query(SUMMARY_SELECT + "WHERE p.status = :status")
+    List<ParcelSummary> findSummariesByStatus(@Param("status") Parcel.ParcelStatus status);
+
+    @Query(SUMMARY_SELECT + "WHERE p.id IN :ids")
+    List<ParcelSummary> findSummariesByIds(@Param("ids") Collection<Long> ids);
+
+    // Each branch can use its own email index, unlike "sender_email = ? OR recipient_email = ?";
+    // the second branch excludes rows already returned by the first, so no dedup sort is needed
+    @Query(SUMMARY_SELECT + "WHERE p.senderEmail = :email "
+        + "UNION ALL "
+        + SUMMARY_SELECT + "WHERE p.recipientEmail = :email AND p.senderEmail <> :email")
+    List<ParcelSummary> findSummariesByUserEmail(@Param("email") String email);
+
+    // Bulk status transitions: lock the affected rows, then move them with one UPDATE per chunk
+    String STATUS_ROW_SELECT = "SELECT new com.online_ordering.online_ordering.dto.ParcelStatusRow("
+        + "p.id, p.trackingNumber, p.status, p.deliveryType, p.senderEmail, p.recipientEmail) FROM Parcel p ";
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query(STATUS_ROW_SELECT + "WHERE p.id IN :ids")
+    List<ParcelStatusRow> lockStatusRowsByIds(@Param("ids") Collection<Long> ids);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query(STATUS_ROW_SELECT + "WHERE p.trackingNumber IN :trackingNumbers")
+    List<ParcelStatusRow> lockStatusRowsByTrackingNumbers(@Param("trackingNumbers") Collection<String> trackingNumbers);
+
+    // Bulk HQL skips @PreUpdate and @Version handling, so updatedAt and version are set explicitly;
+    // the status guard repeats the transition check
+    @Modifying
+    @Query("UPDATE Parcel p SET p.status = :to, p.updatedAt = :now, p.version = p.version + 1 "
+        + "WHERE p.id IN :ids AND p.status IN :from")
+    int updateStatus(@Param("ids") Collection<Long> ids, @Param("from") Collection<Parcel.ParcelStatus> from,
+                     @Param("to") Parcel.ParcelStatus to, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("UPDATE Parcel p SET p.status = com.online_ordering.online_ordering.entity.Parcel.ParcelStatus.DELIVERED, "
+        + "p.updatedAt = :now, p.actualDeliveryDate = :now, p.version = p.version + 1 "
+        + "WHERE p.id IN :ids AND p.status IN :from")
+    int updateStatusToDelivered(@Param("ids") Collection<Long> ids,
+                                @Param("from") Collection<Parcel.ParcelStatus> from, @Param("now") LocalDateTime now);
+
+    // Archiving: lock the next batch of terminal parcels untouched since the cutoff, then delete them once copied.
+    // Served by idx_parcels_status_created_at's leading status column.
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query(STATUS_ROW_SELECT + "WHERE p.status IN :statuses AND p.updatedAt < :cutoff ORDER BY p.id")
+    List<ParcelStatusRow> lockArchivableRows(@Param("statuses") Collection<Parcel.ParcelStatus> statuses,
+                                             @Param("cutoff") LocalDateTime cutoff, Limit limit);
+
+    @Modifying
+    @Query("DELETE FROM Parcel p WHERE p.id IN :ids")
+    int deleteByIds(@Param("ids") Collection<Long> ids);
+
+    // Rows of (status, deliveryType, count) used to reconcile the stats counters
+    @Query("SELECT p.status, p.deliveryType, COUNT(p) FROM Parcel p GROUP BY p.status, p.deliveryType")
+    List<Object[]> countByStatusAndDeliveryType();
+
+    // Keyset pagination: next page strictly after the given id
+    List<Parcel> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
+
+    // Streams every parcel in id order; must be consumed inside a transaction and closed
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT p FROM Parcel p ORDER BY p.id")
+    Stream<Parcel> streamAllOrderById();
+
+    // Columns of the search index, newest parcel first; must be consumed inside a transaction and closed
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT p.id, p.trackingNumber, p.senderName, p.recipientName, p.senderAddress, p.recipientAddress, "
+        + "p.description, p.senderPhone, p.recipientPhone FROM Parcel p ORDER BY p.id DESC")
+    Stream<Object[]> streamSearchFieldsNewestFirst();
+
+    // Search index catch-up: the same columns for parcels changed since the given time
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT p.id, p.trackingNumber, p.senderName, p.recipientName, p.senderAddress, p.recipientAddress, "
+        + "p.description, p.senderPhone, p.recipientPhone FROM Parcel p WHERE p.updatedAt >= :since")
+    Stream<Object[]> streamSearchFieldsUpdatedSince(@Param("since") LocalDateTime since);
+}
@@ -0,0 +1,24 @@
+package com.online_ordering.online_ordering.repository;
+
+import com.online_ordering.online_ordering.entity.ParcelStatusEntry;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+@Repository
+public interface ParcelStatusEntryRepository extends JpaRepository<ParcelStatusEntry, Long> {
+
+    // Timeline of one parcel, served by idx_parcel_status_events_parcel_occurred_at
+    List<ParcelStatusEntry> findByParcelIdOrderByOccurredAtAscIdAsc(Long parcelId);
+
+    // Single DELETE statement instead of loading every entry first
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM ParcelStatusEntry e WHERE e.parcelId = :parcelId")
+    int deleteByParcelId(@Param("parcelId") Long parcelId);
+}
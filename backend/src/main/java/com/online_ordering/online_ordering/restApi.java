@@ -3,12 +3,20 @@ package com.online_ordering.online_ordering;
 import java.util.HashMap;
 import java.util.Map;
 
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.health.HealthEndpoint;
+import org.springframework.boot.actuate.health.Status;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RestController;
 
 @RestController
 public class restApi {
 
+    @Autowired
+    private HealthEndpoint healthEndpoint;
+
     @GetMapping("/")
     public Map<String, Object> welcome() {
         Map<String, Object> response = new HashMap<>();
@@ -17,16 +25,20 @@ public class restApi {
         response.put("endpoints", Map.of(
             "parcels", "/api/parcels",
             "track", "/api/parcels/track/{trackingNumber}",
-            "user_parcels", "/api/parcels/user/{email}"
+            "user_parcels", "/api/parcels/user/{email}",
+            "quote", "/api/rates/quote"
         ));
         return response;
     }
 
+    // Aggregated Actuator health (database, connection pool, disk); details at /actuator/health
     @GetMapping("/health")
-    public Map<String, String> health() {
+    public ResponseEntity<Map<String, String>> health() {
+        Status status = healthEndpoint.health().getStatus();
         Map<String, String> response = new HashMap<>();
-        response.put("status", "UP");
+        response.put("status", status.getCode());
         response.put("service", "Online Parcel Booking API");
-        return response;
+        HttpStatus httpStatus = Status.UP.equals(status) ? HttpStatus.OK : HttpStatus.SERVICE_UNAVAILABLE;
+        return new ResponseEntity<>(response, httpStatus);
     }
 }
@@ -0,0 +1,322 @@
+package com.online_ordering.online_ordering.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
+
+// Append-only log of write-behind bookings, one "<crc32 hex> <json>" line per record. An append returns only once
+// the record is on disk; concurrent appenders share a single fsync (group commit). A separate checkpoint file holds
+// the offset up to which records are known to be in the database. When a write or fsync fails, every record that
+// was not yet durable is cut off the file again and its append fails, so nothing unacknowledged is ever drained.
+final class BookingLog implements Closeable {
+
+    private static final Logger log = LoggerFactory.getLogger(BookingLog.class);
+
+    private static final int READ_CHUNK = 64 * 1024;
+
+    static final class Entry {
+
+        // null when the line is malformed or fails its checksum
+        final String payload;
+
+        // The line as stored, without its checksum check; what goes to the dead-letter file for a corrupt record
+        final String line;
+
+        // Offset just past this record's line
+        final long endOffset;
+
+        Entry(String payload, String line, long endOffset) {
+            this.payload = payload;
+            this.line = line;
+            this.endOffset = endOffset;
+        }
+
+        boolean isCorrupt() {
+            return payload == null;
+        }
+    }
+
+    private final Path checkpointFile;
+
+    private final FileChannel channel;
+
+    private final Object appendLock = new Object();
+
+    // Also the monitor a reader waits on for new durable records
+    private final Object syncLock = new Object();
+
+    // Guarded by appendLock
+    private long written;
+
+    // Bumped (under syncLock and appendLock) whenever records past the durable end are rolled back
+    private volatile long rollbacks;
+
+    // Set when a rollback itself failed: the file may hold unacknowledged records, so stop appending to it
+    private volatile boolean failed;
+
+    private volatile long durable;
+
+    private volatile long checkpoint;
+
+    BookingLog(Path directory) throws IOException {
+        this(directory, open(directory));
+    }
+
+    BookingLog(Path directory, FileChannel channel) throws IOException {
+        this.checkpointFile = directory.resolve("bookings.checkpoint");
+        this.channel = channel;
+
+        long size = channel.size();
+        long saved = Files.exists(checkpointFile)
+            ? Long.parseLong(Files.readString(checkpointFile, StandardCharsets.US_ASCII).trim())
+            : 0L;
+        // Larger than the log only if we crashed between truncating the log and resetting the checkpoint
+        this.checkpoint = saved > size ? 0L : saved;
+
+        // A crash mid-append leaves a torn last line; that record was never acknowledged, so drop it
+        long validEnd = scan(checkpoint, size);
+        if (validEnd < size) {
+            log.warn("Discarding {} bytes of incomplete booking log tail", size - validEnd);
+            channel.truncate(validEnd);
+            channel.force(true);
+        }
+        this.written = validEnd;
+        this.durable = validEnd;
+        channel.position(validEnd);
+    }
+
+    // Appends one record and returns its end offset once it is durable
+    long append(String payload) throws IOException {
+        byte[] json = payload.getBytes(StandardCharsets.UTF_8);
+        CRC32 crc = new CRC32();
+        crc.update(json);
+        byte[] prefix = String.format("%08x ", crc.getValue()).getBytes(StandardCharsets.US_ASCII);
+        ByteBuffer line = ByteBuffer.allocate(prefix.length + json.length + 1);
+        line.put(prefix).put(json).put((byte) '\n').flip();
+
+        long end;
+        long epoch;
+        synchronized (appendLock) {
+            if (failed) {
+                throw new IOException("Booking log could not be rolled back after a failed write; restart to recover");
+            }
+            long start = written;
+            try {
+                while (line.hasRemaining()) {
+                    channel.write(line);
+                }
+            } catch (IOException e) {
+                // A short write would leave the next record appended after a fragment
+                truncateTo(start, e);
+                throw e;
+            }
+            written += line.limit();
+            end = written;
+            epoch = rollbacks;
+        }
+        sync(end, epoch);
+        return end;
+    }
+
+    // One fsync covers every record written before it; appenders that arrive meanwhile find their record covered.
+    // A failed fsync rolls back every record written since the last good one, including other appenders'.
+    private void sync(long end, long epoch) throws IOException {
+        if (rollbacks == epoch && durable >= end) {
+            return;
+        }
+        synchronized (syncLock) {
+            if (rollbacks != epoch) {
+                throw new IOException("Booking log record ending at offset " + end + " was rolled back");
+            }
+            if (durable >= end) {
+                return;
+            }
+            long target;
+            synchronized (appendLock) {
+                target = written;
+            }
+            try {
+                // fdatasync on Linux, which includes the file length needed to read appended data back
+                channel.force(false);
+            } catch (IOException e) {
+                synchronized (appendLock) {
+                    rollbacks++;
+                    truncateTo(durable, e);
+                }
+                throw e;
+            }
+            durable = target;
+            syncLock.notifyAll();
+        }
+    }
+
+    // Cuts off everything past offset, none of which was acknowledged. Caller holds appendLock.
+    private void truncateTo(long offset, IOException cause) {
+        try {
+            channel.truncate(offset);
+            channel.position(offset);
+            channel.force(true);
+            written = offset;
+        } catch (IOException e) {
+            failed = true;
+            cause.addSuppressed(e);
+            log.error("Could not roll the booking log back to offset {}; no further bookings are written to it",
+                offset, e);
+        }
+    }
+
+    // Up to max complete records starting at from, never past the durable end. A corrupt record is returned as
+    // such (see Entry.isCorrupt) so the caller can set it aside and carry on with the ones after it.
+    List<Entry> read(long from, int max) throws IOException {
+        List<Entry> entries = new ArrayList<>();
+        long limit = durable;
+        long position = from;
+        ByteArrayOutputStream pending = new ByteArrayOutputStream();
+        ByteBuffer buffer = ByteBuffer.allocate(READ_CHUNK);
+        while (position < limit && entries.size() < max) {
+            buffer.clear().limit((int) Math.min(READ_CHUNK, limit - position));
+            int read = channel.read(buffer, position);
+            if (read <= 0) {
+                break;
+            }
+            byte[] bytes = buffer.array();
+            int lineStart = 0;
+            for (int i = 0; i < read && entries.size() < max; i++) {
+                if (bytes[i] == '\n') {
+                    pending.write(bytes, lineStart, i - lineStart);
+                    byte[] line = pending.toByteArray();
+                    entries.add(new Entry(decode(line), new String(line, StandardCharsets.UTF_8), position + i + 1));
+                    pending.reset();
+                    lineStart = i + 1;
+                }
+            }
+            if (entries.size() < max) {
+                pending.write(bytes, lineStart, read - lineStart);
+                position += read;
+            } else {
+                position = entries.get(entries.size() - 1).endOffset;
+            }
+        }
+        return entries;
+    }
+
+    long durableEnd() {
+        return durable;
+    }
+
+    long checkpoint() {
+        return checkpoint;
+    }
+
+    // Records up to offset are in the database; replaced atomically so a crash leaves the old or the new value
+    void checkpoint(long offset) throws IOException {
+        Path temp = checkpointFile.resolveSibling(checkpointFile.getFileName() + ".tmp");
+        Files.writeString(temp, Long.toString(offset), StandardCharsets.US_ASCII,
+            StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE,
+            StandardOpenOption.SYNC);
+        Files.move(temp, checkpointFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        checkpoint = offset;
+    }
+
+    // Empties the log when every record up to offset is checkpointed and nothing was appended since
+    boolean truncateIfDrained(long offset) throws IOException {
+        synchronized (appendLock) {
+            if (offset == 0 || written != offset || checkpoint != offset) {
+                return false;
+            }
+            channel.truncate(0);
+            channel.position(0);
+            channel.force(true);
+            written = 0;
+            durable = 0;
+            checkpoint(0);
+            return true;
+        }
+    }
+
+    // Waits until records beyond offset are durable, or the timeout passes
+    void awaitDurableBeyond(long offset, long timeout, TimeUnit unit) throws InterruptedException {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        synchronized (syncLock) {
+            long remaining;
+            while (durable <= offset && (remaining = deadline - System.nanoTime()) > 0) {
+                TimeUnit.NANOSECONDS.timedWait(syncLock, remaining);
+            }
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private static FileChannel open(Path directory) throws IOException {
+        Files.createDirectories(directory);
+        return FileChannel.open(directory.resolve("bookings.log"),
+            StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+    }
+
+    // End of the last intact record in [from, size). Anything after it is a torn tail; a corrupt record with intact
+    // ones after it is not, and is kept for the drainer to set aside.
+    private long scan(long from, long size) throws IOException {
+        long validEnd = from;
+        ByteArrayOutputStream line = new ByteArrayOutputStream();
+        ByteBuffer buffer = ByteBuffer.allocate(READ_CHUNK);
+        long position = from;
+        while (position < size) {
+            buffer.clear();
+            int read = channel.read(buffer, position);
+            if (read <= 0) {
+                break;
+            }
+            byte[] bytes = buffer.array();
+            int lineStart = 0;
+            for (int i = 0; i < read; i++) {
+                if (bytes[i] == '\n') {
+                    line.write(bytes, lineStart, i - lineStart);
+                    if (decode(line.toByteArray()) != null) {
+                        validEnd = position + i + 1;
+                    }
+                    line.reset();
+                    lineStart = i + 1;
+                }
+            }
+            line.write(bytes, lineStart, read - lineStart);
+            position += read;
+        }
+        return validEnd;
+    }
+
+    // The JSON payload of a line, or null when the line is malformed or fails its checksum
+    private static String decode(byte[] line) {
+        if (line.length < 10 || line[8] != ' ') {
+            return null;
+        }
+        long expected;
+        try {
+            expected = Long.parseLong(new String(line, 0, 8, StandardCharsets.US_ASCII), 16);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+        CRC32 crc = new CRC32();
+        crc.update(line, 9, line.length - 9);
+        if (crc.getValue() != expected) {
+            return null;
+        }
+        return new String(line, 9, line.length - 9, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,206 @@
+package com.online_ordering.online_ordering.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.online_ordering.online_ordering.dto.BulkParcelResponse;
+import com.online_ordering.online_ordering.dto.BulkParcelResult;
+import com.online_ordering.online_ordering.dto.ParcelRequest;
+import com.online_ordering.online_ordering.entity.Parcel;
+import com.online_ordering.online_ordering.entity.ParcelStatusEntry;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.IntStream;
+
+@Service
+public class BulkParcelService {
+
+    @Autowired
+    private ParcelService parcelService;
+
+    @Autowired
+    private Validator validator;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ParcelMetrics parcelMetrics;
+
+    @Autowired
+    private ParcelStatsCounters statsCounters;
+
+    @Autowired
+    private ParcelSearchIndex searchIndex;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final TransactionTemplate transactionTemplate;
+
+    // Rows per JDBC batch; keep in line with hibernate.jdbc.batch_size
+    @Value("${parcels.bulk.batch-size:50}")
+    private int batchSize;
+
+    // Rows validated together and committed in one transaction
+    @Value("${parcels.bulk.chunk-size:1000}")
+    private int chunkSize;
+
+    @Value("${parcels.bulk.max-items:100000}")
+    private int maxItems;
+
+    public BulkParcelService(PlatformTransactionManager transactionManager) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    // Book every parcel of an in-memory array
+    public BulkParcelResponse createParcels(List<ParcelRequest> requests) {
+        if (requests.size() > maxItems) {
+            throw new IllegalArgumentException(
+                "Bulk request has " + requests.size() + " items; the maximum is " + maxItems
+                    + ". Use the NDJSON upload for larger manifests");
+        }
+        BulkParcelResponse response = new BulkParcelResponse();
+        for (int start = 0; start < requests.size(); start += chunkSize) {
+            List<ParcelRequest> chunk = requests.subList(start, Math.min(start + chunkSize, requests.size()));
+            processChunk(chunk, Collections.nCopies(chunk.size(), null), start, response);
+        }
+        return response;
+    }
+
+    // Book parcels from an NDJSON stream, one chunk at a time so the upload is never fully buffered
+    public BulkParcelResponse createParcels(BufferedReader ndjson) throws IOException {
+        ObjectReader reader = objectMapper.readerFor(ParcelRequest.class);
+        BulkParcelResponse response = new BulkParcelResponse();
+        List<ParcelRequest> chunk = new ArrayList<>(chunkSize);
+        List<String> parseErrors = new ArrayList<>(chunkSize);
+        int offset = 0;
+
+        String line;
+        while ((line = ndjson.readLine()) != null) {
+            if (line.isBlank()) {
+                continue;
+            }
+            // A malformed line fails only its own item
+            try {
+                chunk.add(reader.readValue(line));
+                parseErrors.add(null);
+            } catch (JsonProcessingException e) {
+                chunk.add(null);
+                parseErrors.add("Malformed JSON: " + e.getOriginalMessage());
+            }
+            if (chunk.size() == chunkSize) {
+                processChunk(chunk, parseErrors, offset, response);
+                offset += chunk.size();
+                chunk.clear();
+                parseErrors.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            processChunk(chunk, parseErrors, offset, response);
+        }
+        return response;
+    }
+
+    // Validate a chunk in parallel, then insert the valid rows in JDBC batches
+    private void processChunk(List<ParcelRequest> chunk, List<String> parseErrors,
+                              int offset, BulkParcelResponse response) {
+        List<List<String>> violations = IntStream.range(0, chunk.size())
+            .parallel()
+            .mapToObj(i -> chunk.get(i) == null ? List.of(parseErrors.get(i)) : validate(chunk.get(i)))
+            .toList();
+
+        BulkParcelResult[] results = new BulkParcelResult[chunk.size()];
+        List<Integer> validIndexes = new ArrayList<>();
+        for (int i = 0; i < chunk.size(); i++) {
+            if (violations.get(i).isEmpty()) {
+                validIndexes.add(i);
+            } else {
+                results[i] = BulkParcelResult.failure(offset + i, violations.get(i));
+            }
+        }
+
+        List<Parcel> parcels = validIndexes.stream()
+            .map(i -> parcelService.buildNewParcel(chunk.get(i)))
+            .toList();
+        try {
+            insert(parcels);
+            for (int j = 0; j < parcels.size(); j++) {
+                Parcel parcel = parcels.get(j);
+                int i = validIndexes.get(j);
+                results[i] = BulkParcelResult.success(offset + i, parcel.getId(), parcel.getTrackingNumber());
+            }
+        } catch (RuntimeException e) {
+            // One bad row rolls back the whole chunk; retry row by row to isolate it
+            for (int i : validIndexes) {
+                Parcel parcel = parcelService.buildNewParcel(chunk.get(i));
+                try {
+                    insert(List.of(parcel));
+                    results[i] = BulkParcelResult.success(offset + i, parcel.getId(), parcel.getTrackingNumber());
+                } catch (RuntimeException rowError) {
+                    results[i] = BulkParcelResult.failure(offset + i, List.of(rootMessage(rowError)));
+                }
+            }
+        }
+
+        for (BulkParcelResult result : results) {
+            response.add(result);
+        }
+    }
+
+    // Persist in one transaction, flushing every batchSize rows so Hibernate emits JDBC batches.
+    // Each parcel's initial history entry goes into the same transaction, as for single bookings.
+    private void insert(List<Parcel> parcels) {
+        if (parcels.isEmpty()) {
+            return;
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            for (int i = 0; i < parcels.size(); i++) {
+                Parcel parcel = parcels.get(i);
+                entityManager.persist(parcel);
+                entityManager.persist(new ParcelStatusEntry(
+                    parcel.getId(), parcel.getStatus(), null, parcel.getCreatedAt()));
+                if ((i + 1) % batchSize == 0) {
+                    entityManager.flush();
+                    entityManager.clear();
+                }
+            }
+            entityManager.flush();
+            entityManager.clear();
+        });
+        parcelMetrics.recordCreated(parcels.size());
+        for (Parcel parcel : parcels) {
+            statsCounters.recordCreated(parcel.getStatus(), parcel.getDeliveryType());
+            searchIndex.index(parcel);
+        }
+    }
+
+    private List<String> validate(ParcelRequest request) {
+        List<String> errors = new ArrayList<>();
+        for (ConstraintViolation<ParcelRequest> violation : validator.validate(request)) {
+            errors.add(violation.getPropertyPath() + ": " + violation.getMessage());
+        }
+        return errors;
+    }
+
+    private static String rootMessage(Throwable error) {
+        Throwable root = error;
+        while (root.getCause() != null && root.getCause() != root) {
+            root = root.getCause();
+        }
+        return root.getMessage();
+    }
+}
@@ -0,0 +1,187 @@
+package com.online_ordering.online_ordering.service;
+
+import com.online_ordering.online_ordering.dto.BulkParcelResponse;
+import com.online_ordering.online_ordering.dto.BulkParcelResult;
+import com.online_ordering.online_ordering.dto.BulkStatusRequest;
+import com.online_ordering.online_ordering.dto.ParcelStatusEvent;
+import com.online_ordering.online_ordering.dto.ParcelStatusRow;
+import com.online_ordering.online_ordering.entity.Parcel;
+import com.online_ordering.online_ordering.entity.ParcelStatusEntry;
+import com.online_ordering.online_ordering.repository.ParcelRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.function.Function;
+
+// Set-based status transitions for hub scanners: each chunk is one locking SELECT of the needed columns,
+// one UPDATE for every parcel that moves, and one batch of history inserts, all in a single transaction
+@Service
+public class BulkStatusService {
+
+    @Autowired
+    private ParcelRepository parcelRepository;
+
+    @Autowired
+    private TrackingCache trackingCache;
+
+    @Autowired
+    private RecentWrites recentWrites;
+
+    @Autowired
+    private ParcelCacheInvalidator cacheInvalidator;
+
+    @Autowired
+    private ParcelMetrics parcelMetrics;
+
+    @Autowired
+    private ParcelStatsCounters statsCounters;
+
+    @Autowired
+    private ParcelEventBus parcelEventBus;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${parcels.bulk.batch-size:50}")
+    private int batchSize;
+
+    @Value("${parcels.bulk.chunk-size:1000}")
+    private int chunkSize;
+
+    @Value("${parcels.bulk.max-items:100000}")
+    private int maxItems;
+
+    public BulkStatusService(PlatformTransactionManager transactionManager) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    public BulkParcelResponse transition(BulkStatusRequest request) {
+        boolean byId = request.getIds() != null && !request.getIds().isEmpty();
+        boolean byTrackingNumber = request.getTrackingNumbers() != null && !request.getTrackingNumbers().isEmpty();
+        if (byId == byTrackingNumber) {
+            throw new IllegalArgumentException("Provide either ids or trackingNumbers");
+        }
+        List<?> keys = byId ? request.getIds() : request.getTrackingNumbers();
+        if (keys.size() > maxItems) {
+            throw new IllegalArgumentException(
+                "Bulk request has " + keys.size() + " items; the maximum is " + maxItems);
+        }
+
+        BulkParcelResponse response = new BulkParcelResponse();
+        for (int start = 0; start < keys.size(); start += chunkSize) {
+            List<?> chunk = keys.subList(start, Math.min(start + chunkSize, keys.size()));
+            processChunk(chunk, byId, start, request.getStatus(), request.getLocation(), response);
+        }
+        return response;
+    }
+
+    private void processChunk(List<?> keys, boolean byId, int offset, Parcel.ParcelStatus to, String location,
+                              BulkParcelResponse response) {
+        BulkParcelResult[] results = new BulkParcelResult[keys.size()];
+        List<ParcelStatusRow> moved = new ArrayList<>();
+        LocalDateTime now = LocalDateTime.now();
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                Map<Object, ParcelStatusRow> rows = lockRows(keys, byId);
+                // Tracks status as items are applied, so a repeated id sees its earlier change
+                Map<Long, Parcel.ParcelStatus> current = new HashMap<>();
+                for (int i = 0; i < keys.size(); i++) {
+                    ParcelStatusRow row = rows.get(keys.get(i));
+                    if (row == null) {
+                        results[i] = BulkParcelResult.failure(offset + i,
+                            List.of("Parcel not found: " + keys.get(i)));
+                        continue;
+                    }
+                    Parcel.ParcelStatus from = current.getOrDefault(row.getId(), row.getStatus());
+                    if (from == to) {
+                        results[i] = BulkParcelResult.transitioned(offset + i, row.getId(), row.getTrackingNumber(), from, to);
+                    } else if (StatusTransitions.isAllowed(from, to)) {
+                        results[i] = BulkParcelResult.transitioned(offset + i, row.getId(), row.getTrackingNumber(), from, to);
+                        current.put(row.getId(), to);
+                        moved.add(row);
+                    } else {
+                        BulkParcelResult failure = BulkParcelResult.failure(offset + i,
+                            List.of("Cannot change status from " + from + " to " + to));
+                        failure.setId(row.getId());
+                        failure.setTrackingNumber(row.getTrackingNumber());
+                        failure.setPreviousStatus(from);
+                        results[i] = failure;
+                    }
+                }
+                applyTransitions(moved, to, location, now);
+            });
+        } catch (RuntimeException e) {
+            // The chunk rolled back as a whole; report every item in it
+            moved.clear();
+            for (int i = 0; i < keys.size(); i++) {
+                results[i] = BulkParcelResult.failure(offset + i, List.of("Chunk failed: " + e.getMessage()));
+            }
+        }
+
+        for (ParcelStatusRow row : moved) {
+            recentWrites.record(row.getTrackingNumber(), row.getSenderEmail(), row.getRecipientEmail());
+            trackingCache.evict(row.getTrackingNumber());
+            parcelMetrics.recordTransition(row.getStatus(), to);
+            statsCounters.recordChange(row.getStatus(), row.getDeliveryType(), to, row.getDeliveryType());
+            parcelEventBus.publishStatusChange(
+                new ParcelStatusEvent(row.getId(), row.getTrackingNumber(), row.getStatus(), to, now),
+                row.getSenderEmail(), row.getRecipientEmail());
+        }
+        // Bulk HQL fires no entity events
+        cacheInvalidator.parcelsChanged(moved.stream()
+            .collect(Collectors.toMap(ParcelStatusRow::getId, ParcelStatusRow::getTrackingNumber)));
+        for (BulkParcelResult result : results) {
+            response.add(result);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<Object, ParcelStatusRow> lockRows(List<?> keys, boolean byId) {
+        List<ParcelStatusRow> rows = byId
+            ? parcelRepository.lockStatusRowsByIds((List<Long>) keys)
+            : parcelRepository.lockStatusRowsByTrackingNumbers((List<String>) keys);
+        Function<ParcelStatusRow, Object> key = byId ? ParcelStatusRow::getId : ParcelStatusRow::getTrackingNumber;
+        Map<Object, ParcelStatusRow> byKey = new HashMap<>();
+        for (ParcelStatusRow row : rows) {
+            byKey.put(key.apply(row), row);
+        }
+        return byKey;
+    }
+
+    // One UPDATE for the whole chunk (DELIVERED also stamps actualDeliveryDate), then the history rows
+    private void applyTransitions(List<ParcelStatusRow> moved, Parcel.ParcelStatus to, String location,
+                                  LocalDateTime now) {
+        if (moved.isEmpty()) {
+            return;
+        }
+        List<Long> ids = moved.stream().map(ParcelStatusRow::getId).distinct().toList();
+        Set<Parcel.ParcelStatus> from = StatusTransitions.sourcesOf(to);
+        int updated = to == Parcel.ParcelStatus.DELIVERED
+            ? parcelRepository.updateStatusToDelivered(ids, from, now)
+            : parcelRepository.updateStatus(ids, from, to, now);
+        if (updated != ids.size()) {
+            throw new IllegalStateException("Expected to update " + ids.size() + " parcels but updated " + updated);
+        }
+        for (int i = 0; i < moved.size(); i++) {
+            entityManager.persist(new ParcelStatusEntry(moved.get(i).getId(), to, location, now));
+            if ((i + 1) % batchSize == 0) {
+                entityManager.flush();
+                entityManager.clear();
+            }
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package com.online_ordering.online_ordering.service;
+
+import java.util.function.Consumer;
+
+// Carries second-level cache invalidation messages between the nodes of a deployment
+public interface CacheInvalidationTransport {
+
+    // Called inside the writing transaction, just before it commits; other nodes must only receive the message
+    // if that transaction commits
+    void publish(String message);
+
+    // onMessage receives every published message, this node's own included. onGap runs whenever messages may
+    // have been missed (e.g. the connection carrying them was re-established), so the receiver can drop everything.
+    void subscribe(Consumer<String> onMessage, Runnable onGap);
+}
@@ -0,0 +1,43 @@
+package com.online_ordering.online_ordering.service;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+// In-JVM loopback: enough for a single node, and for tests that play the other nodes by publishing themselves
+@Component
+@ConditionalOnProperty(name = "parcels.l2-cache.invalidation", havingValue = "local", matchIfMissing = true)
+public class LocalInvalidationTransport implements CacheInvalidationTransport {
+
+    private final List<Consumer<String>> subscribers = new CopyOnWriteArrayList<>();
+
+    @Override
+    public void publish(String message) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            deliver(message);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                deliver(message);
+            }
+        });
+    }
+
+    @Override
+    public void subscribe(Consumer<String> onMessage, Runnable onGap) {
+        subscribers.add(onMessage);
+    }
+
+    private void deliver(String message) {
+        for (Consumer<String> subscriber : subscribers) {
+            subscriber.accept(message);
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package com.online_ordering.online_ordering.service;
+
+import com.online_ordering.online_ordering.dto.ParcelStatusRow;
+import com.online_ordering.online_ordering.entity.Parcel;
+import com.online_ordering.online_ordering.repository.ParcelArchiveRepository;
+import com.online_ordering.online_ordering.repository.ParcelRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+// Moves terminal parcels that have not changed for min-age from parcels to parcels_archive, batch-size rows per
+// transaction: lock the batch, copy it with one INSERT ... SELECT, delete it with one DELETE. Tracking, user and
+// history lookups fall back to the archive, so the move is invisible to clients, and the stats counters keep
+// counting archived parcels; list-by-status and search cover only the parcels table.
+@Component
+public class ParcelArchiver {
+
+    private static final Logger log = LoggerFactory.getLogger(ParcelArchiver.class);
+
+    static final Set<Parcel.ParcelStatus> TERMINAL =
+        EnumSet.of(Parcel.ParcelStatus.DELIVERED, Parcel.ParcelStatus.CANCELLED, Parcel.ParcelStatus.RETURNED);
+
+    @Autowired
+    private ParcelRepository parcelRepository;
+
+    @Autowired
+    private ParcelArchiveRepository archiveRepository;
+
+    @Autowired
+    private TrackingCache trackingCache;
+
+    @Autowired
+    private ParcelCacheInvalidator cacheInvalidator;
+
+    @Autowired
+    private ParcelSearchIndex searchIndex;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final boolean enabled;
+
+    private final Duration minAge;
+
+    private final int batchSize;
+
+    private final Counter archived;
+
+    public ParcelArchiver(
+            PlatformTransactionManager transactionManager,
+            @Value("${parcels.archive.enabled:true}") boolean enabled,
+            @Value("${parcels.archive.min-age:30d}") Duration minAge,
+            @Value("${parcels.archive.batch-size:500}") int batchSize,
+            MeterRegistry meterRegistry) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.minAge = minAge;
+        this.batchSize = batchSize;
+        this.archived = Counter.builder("parcels.archive.archived")
+            .description("Parcels moved to the archive table")
+            .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${parcels.archive.interval:PT1H}",
+        initialDelayString = "${parcels.archive.interval:PT1H}")
+    public void scheduledArchive() {
+        if (enabled) {
+            archive();
+        }
+    }
+
+    public int archive() {
+        return archive(minAge);
+    }
+
+    // Archive every terminal parcel unchanged for at least the given age, one batch at a time; returns how many moved
+    public int archive(Duration age) {
+        LocalDateTime cutoff = LocalDateTime.now().minus(age);
+        int total = 0;
+        int moved;
+        do {
+            moved = archiveBatch(cutoff);
+            total += moved;
+        } while (moved == batchSize);
+        if (total > 0) {
+            log.info("Archived {} parcels last changed before {}", total, cutoff);
+        }
+        return total;
+    }
+
+    private int archiveBatch(LocalDateTime cutoff) {
+        List<ParcelStatusRow> rows = transactionTemplate.execute(status -> {
+            // Locked so a concurrent update either finishes first or finds the parcel gone
+            List<ParcelStatusRow> locked = parcelRepository.lockArchivableRows(TERMINAL, cutoff, Limit.of(batchSize));
+            if (locked.isEmpty()) {
+                return locked;
+            }
+            List<Long> ids = locked.stream().map(ParcelStatusRow::getId).toList();
+            archiveRepository.copyFromParcels(ids, LocalDateTime.now());
+            parcelRepository.deleteByIds(ids);
+            return locked;
+        });
+
+        for (ParcelStatusRow row : rows) {
+            trackingCache.evict(row.getTrackingNumber());
+            searchIndex.remove(row.getId());
+        }
+        cacheInvalidator.parcelsChanged(rows.stream()
+            .collect(Collectors.toMap(ParcelStatusRow::getId, ParcelStatusRow::getTrackingNumber)));
+        archived.increment(rows.size());
+        return rows.size();
+    }
+}
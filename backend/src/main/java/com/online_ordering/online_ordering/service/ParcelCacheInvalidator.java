@@ -0,0 +1,207 @@
+package com.online_ordering.online_ordering.service;
+
+import com.online_ordering.online_ordering.entity.Parcel;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Cache;
+import org.hibernate.action.spi.BeforeTransactionCompletionProcess;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostDeleteEventListener;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostInsertEventListener;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.event.spi.PostUpdateEventListener;
+import org.hibernate.persister.entity.EntityPersister;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+// Keeps the Parcel second-level cache and the TrackingCache of every node in step. Each committed transaction that
+// wrote parcels publishes one message with their ids and tracking numbers ("<node> <id>:<tracking>,..." or
+// "<node> *"); every other node evicts those entities, their tracking lookups and its cached query results.
+// Hibernate already keeps the writing node's own cache consistent. Entity writes are picked up from Hibernate's
+// events; bulk HQL updates and deletes report their ids here.
+// The message is published inside the writing transaction, after its final flush and on its own connection
+// (Postgres delivers a NOTIFY only once the transaction commits), so a write never needs a second connection.
+@Component
+public class ParcelCacheInvalidator implements PostInsertEventListener, PostUpdateEventListener,
+    PostDeleteEventListener {
+
+    private static final Logger log = LoggerFactory.getLogger(ParcelCacheInvalidator.class);
+
+    // Larger writes invalidate everything; keeps a message under pg_notify's 8000 byte payload limit
+    static final int MAX_MESSAGE_BYTES = 7000;
+
+    private static final String ALL = "*";
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private CacheInvalidationTransport transport;
+
+    @Autowired
+    private TrackingCache trackingCache;
+
+    @Autowired
+    private TaskScheduler taskScheduler;
+
+    private final String nodeId = UUID.randomUUID().toString();
+
+    @Value("${parcels.l2-cache.enabled:true}")
+    private boolean enabled;
+
+    @Value("${parcels.datasource.replica-urls:}")
+    private String replicaUrls;
+
+    @Value("${parcels.datasource.max-lag:2s}")
+    private Duration maxLag;
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        EventListenerRegistry listeners = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+            .getServiceRegistry().getService(EventListenerRegistry.class);
+        listeners.appendListeners(EventType.POST_INSERT, this);
+        listeners.appendListeners(EventType.POST_UPDATE, this);
+        listeners.appendListeners(EventType.POST_DELETE, this);
+        transport.subscribe(this::receive, () -> evict(null));
+    }
+
+    // Tracking numbers by parcel id. Publishes as the surrounding transaction commits (immediately outside one),
+    // batching every parcel it wrote. Hibernate runs the publish after flushing, so that last flush is included too.
+    public void parcelsChanged(Map<Long, String> parcels) {
+        if (!enabled || parcels.isEmpty()) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            // The write is already committed; all that can be done is to say so
+            try {
+                publish(parcels);
+            } catch (RuntimeException e) {
+                log.warn("Could not publish cache invalidation for {} parcels; other nodes may serve them from cache "
+                    + "until it expires", parcels.size(), e);
+            }
+            return;
+        }
+        @SuppressWarnings("unchecked")
+        Map<Long, String> pending = (Map<Long, String>) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            Map<Long, String> written = new LinkedHashMap<>();
+            TransactionSynchronizationManager.bindResource(this, written);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(ParcelCacheInvalidator.this);
+                }
+            });
+            entityManager.unwrap(SessionImplementor.class).getActionQueue()
+                .registerProcess((BeforeTransactionCompletionProcess) session -> publish(written));
+            pending = written;
+        }
+        pending.putAll(parcels);
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        changed(event.getEntity(), event.getId());
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        changed(event.getEntity(), event.getId());
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        changed(event.getEntity(), event.getId());
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return false;
+    }
+
+    private void changed(Object entity, Object id) {
+        if (entity instanceof Parcel parcel) {
+            parcelsChanged(Map.of((Long) id, parcel.getTrackingNumber()));
+        }
+    }
+
+    // Inside a transaction a failure fails the commit, so a write never lands without its invalidation
+    private void publish(Map<Long, String> parcels) {
+        String body = parcels.entrySet().stream()
+            .map(parcel -> parcel.getKey() + ":" + parcel.getValue())
+            .collect(Collectors.joining(","));
+        String message = nodeId + " " + body;
+        if (message.getBytes(StandardCharsets.UTF_8).length > MAX_MESSAGE_BYTES) {
+            message = nodeId + " " + ALL;
+        }
+        transport.publish(message);
+    }
+
+    private void receive(String message) {
+        int separator = message.indexOf(' ');
+        if (separator < 0) {
+            log.warn("Ignoring malformed cache invalidation message {}", message);
+            return;
+        }
+        String body = message.substring(separator + 1);
+        Map<Long, String> parcels = null;
+        if (!ALL.equals(body)) {
+            parcels = new HashMap<>();
+            for (String parcel : body.split(",")) {
+                int colon = parcel.indexOf(':');
+                parcels.put(Long.valueOf(parcel.substring(0, colon)), parcel.substring(colon + 1));
+            }
+        }
+        Map<Long, String> changed = parcels;
+        if (!message.substring(0, separator).equals(nodeId)) {
+            evict(changed);
+        }
+        // A read on a lagging replica can put the old row back; evict again once it has caught up
+        if (!replicaUrls.isBlank()) {
+            taskScheduler.schedule(() -> evict(changed), Instant.now().plus(maxLag));
+        }
+    }
+
+    // Tracking numbers by parcel id; null evicts every parcel
+    private void evict(Map<Long, String> parcels) {
+        Cache cache = entityManagerFactory.getCache().unwrap(Cache.class);
+        if (parcels == null) {
+            cache.evictEntityData(Parcel.class);
+            trackingCache.clear();
+        } else {
+            parcels.forEach((id, trackingNumber) -> {
+                cache.evictEntityData(Parcel.class, id);
+                trackingCache.invalidate(trackingNumber);
+            });
+        }
+        cache.evictDefaultQueryRegion();
+    }
+}
@@ -0,0 +1,249 @@
+package com.online_ordering.online_ordering.service;
+
+import com.online_ordering.online_ordering.dto.ParcelStatusEvent;
+import com.online_ordering.online_ordering.entity.Parcel;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+// In-process fan-out of parcel status changes to server-sent event subscribers, keyed by tracking number and by
+// sender/recipient email. Publishing never blocks on a client: each subscriber has a small bounded buffer that
+// drops its oldest entry when full, and a shared dispatcher pool drains the buffers.
+@Component
+public class ParcelEventBus implements DisposableBean {
+
+    private final Map<String, Set<Subscription>> byTrackingNumber = new ConcurrentHashMap<>();
+
+    private final Map<String, Set<Subscription>> byEmail = new ConcurrentHashMap<>();
+
+    private final Set<Subscription> all = ConcurrentHashMap.newKeySet();
+
+    private final AtomicInteger subscriberCount = new AtomicInteger();
+
+    private final AtomicLong eventIds = new AtomicLong();
+
+    private final ExecutorService dispatcher;
+
+    private final int bufferSize;
+
+    private final long emitterTimeoutMillis;
+
+    private final int maxSubscribers;
+
+    private final Counter dropped;
+
+    public ParcelEventBus(
+            @Value("${parcels.events.buffer-size:16}") int bufferSize,
+            @Value("${parcels.events.emitter-timeout:30m}") Duration emitterTimeout,
+            @Value("${parcels.events.max-subscribers:10000}") int maxSubscribers,
+            @Value("${parcels.events.dispatcher-threads:2}") int dispatcherThreads,
+            MeterRegistry meterRegistry) {
+        this.bufferSize = bufferSize;
+        this.emitterTimeoutMillis = emitterTimeout.toMillis();
+        this.maxSubscribers = maxSubscribers;
+        AtomicInteger threadIds = new AtomicInteger();
+        this.dispatcher = Executors.newFixedThreadPool(dispatcherThreads, runnable -> {
+            Thread thread = new Thread(runnable, "parcel-events-" + threadIds.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        Gauge.builder("parcels.events.subscribers", subscriberCount, AtomicInteger::get)
+            .description("Open parcel event streams")
+            .register(meterRegistry);
+        this.dropped = Counter.builder("parcels.events.dropped")
+            .description("Events discarded because a subscriber's buffer was full")
+            .register(meterRegistry);
+    }
+
+    public SseEmitter subscribeToTrackingNumber(String trackingNumber) {
+        return subscribe(byTrackingNumber, trackingNumber);
+    }
+
+    public SseEmitter subscribeToUser(String email) {
+        return subscribe(byEmail, email);
+    }
+
+    public void publishStatusChange(Parcel parcel, Parcel.ParcelStatus previousStatus) {
+        publishStatusChange(
+            new ParcelStatusEvent(parcel.getId(), parcel.getTrackingNumber(), previousStatus, parcel.getStatus(),
+                parcel.getUpdatedAt()),
+            parcel.getSenderEmail(), parcel.getRecipientEmail());
+    }
+
+    // Deliver after the surrounding transaction commits, so subscribers never see a change that was rolled back
+    public void publishStatusChange(ParcelStatusEvent event, String senderEmail, String recipientEmail) {
+        if (all.isEmpty()) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    dispatch(event, senderEmail, recipientEmail);
+                }
+            });
+        } else {
+            dispatch(event, senderEmail, recipientEmail);
+        }
+    }
+
+    public int getSubscriberCount() {
+        return subscriberCount.get();
+    }
+
+    // Comment lines keep proxies from closing idle streams and surface dead connections as send errors
+    @Scheduled(fixedDelayString = "${parcels.events.heartbeat-interval:PT30S}",
+        initialDelayString = "${parcels.events.heartbeat-interval:PT30S}")
+    public void sendHeartbeats() {
+        Set<ResponseBodyEmitter.DataWithMediaType> heartbeat = SseEmitter.event().comment("keepalive").build();
+        for (Subscription subscription : all) {
+            subscription.offer(heartbeat);
+        }
+    }
+
+    @Override
+    public void destroy() {
+        for (Subscription subscription : all) {
+            subscription.emitter.complete();
+        }
+        dispatcher.shutdownNow();
+    }
+
+    private SseEmitter subscribe(Map<String, Set<Subscription>> index, String key) {
+        if (subscriberCount.incrementAndGet() > maxSubscribers) {
+            subscriberCount.decrementAndGet();
+            throw new IllegalStateException("Too many open event streams; retry later");
+        }
+        SseEmitter emitter = new SseEmitter(emitterTimeoutMillis);
+        Subscription subscription = new Subscription(emitter, index, key, bufferSize);
+        // Added inside compute so a concurrent remove() cannot drop the set we are adding to
+        index.compute(key, (k, subscriptions) -> {
+            Set<Subscription> target = subscriptions != null ? subscriptions : ConcurrentHashMap.newKeySet();
+            target.add(subscription);
+            return target;
+        });
+        all.add(subscription);
+        emitter.onCompletion(subscription::remove);
+        emitter.onTimeout(subscription::remove);
+        emitter.onError(error -> subscription.remove());
+        return emitter;
+    }
+
+    private void dispatch(ParcelStatusEvent event, String senderEmail, String recipientEmail) {
+        // Built once and shared read-only: SseEventBuilder.build() appends on every call, so never per subscriber
+        Set<ResponseBodyEmitter.DataWithMediaType> message = SseEmitter.event()
+            .id(Long.toString(eventIds.incrementAndGet()))
+            .name("status")
+            .data(event, MediaType.APPLICATION_JSON)
+            .build();
+        offerAll(byTrackingNumber.get(event.getTrackingNumber()), message);
+        offerAll(byEmail.get(senderEmail), message);
+        if (recipientEmail != null && !recipientEmail.equals(senderEmail)) {
+            offerAll(byEmail.get(recipientEmail), message);
+        }
+    }
+
+    private void offerAll(Set<Subscription> subscriptions, Set<ResponseBodyEmitter.DataWithMediaType> message) {
+        if (subscriptions != null) {
+            for (Subscription subscription : subscriptions) {
+                subscription.offer(message);
+            }
+        }
+    }
+
+    // One open stream: its pending events and a flag ensuring at most one dispatcher thread writes to it
+    private final class Subscription {
+
+        private final SseEmitter emitter;
+
+        private final Map<String, Set<Subscription>> index;
+
+        private final String key;
+
+        private final ArrayBlockingQueue<Set<ResponseBodyEmitter.DataWithMediaType>> buffer;
+
+        private final AtomicBoolean draining = new AtomicBoolean();
+
+        private final AtomicBoolean removed = new AtomicBoolean();
+
+        Subscription(SseEmitter emitter, Map<String, Set<Subscription>> index, String key, int bufferSize) {
+            this.emitter = emitter;
+            this.index = index;
+            this.key = key;
+            this.buffer = new ArrayBlockingQueue<>(bufferSize);
+        }
+
+        void offer(Set<ResponseBodyEmitter.DataWithMediaType> message) {
+            while (!buffer.offer(message)) {
+                // A slow client gets the most recent changes; older ones are superseded anyway
+                if (buffer.poll() != null) {
+                    dropped.increment();
+                }
+            }
+            scheduleDrain();
+        }
+
+        private void scheduleDrain() {
+            if (!removed.get() && draining.compareAndSet(false, true)) {
+                try {
+                    dispatcher.execute(this::drain);
+                } catch (RejectedExecutionException e) {
+                    draining.set(false);
+                }
+            }
+        }
+
+        private void drain() {
+            try {
+                Set<ResponseBodyEmitter.DataWithMediaType> message;
+                while (!removed.get() && (message = buffer.poll()) != null) {
+                    emitter.send(message);
+                }
+            } catch (IOException | IllegalStateException e) {
+                // Client went away or the emitter already completed
+                remove();
+                emitter.completeWithError(e);
+            } finally {
+                draining.set(false);
+            }
+            // An offer may have slipped in between the last poll and clearing the flag
+            if (!buffer.isEmpty()) {
+                scheduleDrain();
+            }
+        }
+
+        void remove() {
+            if (removed.compareAndSet(false, true)) {
+                all.remove(this);
+                index.computeIfPresent(key, (k, subscriptions) -> {
+                    subscriptions.remove(this);
+                    return subscriptions.isEmpty() ? null : subscriptions;
+                });
+                buffer.clear();
+                subscriberCount.decrementAndGet();
+            }
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.online_ordering.online_ordering.service;
+
+import com.online_ordering.online_ordering.entity.Parcel;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Business metrics for parcels; HTTP and repository timings come from Actuator's own instrumentation
+@Component
+public class ParcelMetrics {
+
+    private final Counter[][] transitions;
+
+    private final Counter created;
+
+    // operation -> outcome -> counter
+    private final Map<String, Map<String, Counter>> conflicts = new HashMap<>();
+
+    public ParcelMetrics(MeterRegistry meterRegistry) {
+        Parcel.ParcelStatus[] statuses = Parcel.ParcelStatus.values();
+        // Registered up front so the hot path is an array lookup, not a registry search
+        transitions = new Counter[statuses.length][statuses.length];
+        for (Parcel.ParcelStatus from : statuses) {
+            for (Parcel.ParcelStatus to : statuses) {
+                transitions[from.ordinal()][to.ordinal()] = Counter.builder("parcels.status.transitions")
+                    .description("Parcel status changes")
+                    .tag("from", from.name())
+                    .tag("to", to.name())
+                    .register(meterRegistry);
+            }
+        }
+        created = Counter.builder("parcels.created")
+            .description("Parcels booked")
+            .register(meterRegistry);
+        // Status changes are retried before being rejected; full updates and merge patches go straight back
+        registerConflicts(meterRegistry, "status", List.of("retried", "rejected"));
+        registerConflicts(meterRegistry, "update", List.of("rejected"));
+        registerConflicts(meterRegistry, "patch", List.of("rejected"));
+    }
+
+    private void registerConflicts(MeterRegistry meterRegistry, String operation, List<String> outcomes) {
+        Map<String, Counter> byOutcome = new HashMap<>();
+        for (String outcome : outcomes) {
+            byOutcome.put(outcome, Counter.builder("parcels.optimistic_lock.conflicts")
+                .description("Parcel writes that lost an optimistic version check")
+                .tag("operation", operation)
+                .tag("outcome", outcome)
+                .register(meterRegistry));
+        }
+        conflicts.put(operation, byOutcome);
+    }
+
+    public void recordTransition(Parcel.ParcelStatus from, Parcel.ParcelStatus to) {
+        transitions[from.ordinal()][to.ordinal()].increment();
+    }
+
+    public void recordCreated(int count) {
+        created.increment(count);
+    }
+
+    // outcome is "retried" when the write was attempted again, "rejected" when the conflict went back to the client
+    public void recordConflict(String operation, String outcome) {
+        Counter counter = conflicts.getOrDefault(operation, Map.of()).get(outcome);
+        if (counter == null) {
+            throw new IllegalArgumentException("Unknown conflict metric: " + operation + "/" + outcome);
+        }
+        counter.increment();
+    }
+}
@@ -0,0 +1,81 @@
+package com.online_ordering.online_ordering.service;
+
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+
+// Keeps monthly partitions of the range-partitioned parcels table (db/partitioning/parcels-partitioned.sql)
+// created months-ahead of the clock, so new rows never land in parcels_default. Runs before the application
+// takes traffic and then every check-interval.
+@Component
+@ConditionalOnProperty(name = "parcels.partitioning.enabled", havingValue = "true")
+public class ParcelPartitionMaintainer {
+
+    private static final Logger log = LoggerFactory.getLogger(ParcelPartitionMaintainer.class);
+
+    private static final DateTimeFormatter PARTITION_SUFFIX = DateTimeFormatter.ofPattern("yyyy_MM");
+
+    private final JdbcTemplate jdbcTemplate;
+
+    // DDL needs a commit: pooled connections have auto-commit off
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${parcels.partitioning.months-ahead:3}")
+    private int monthsAhead;
+
+    public ParcelPartitionMaintainer(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @PostConstruct
+    public void start() {
+        ensurePartitions();
+    }
+
+    @Scheduled(fixedDelayString = "${parcels.partitioning.check-interval:PT6H}",
+        initialDelayString = "${parcels.partitioning.check-interval:PT6H}")
+    public void ensurePartitions() {
+        if (!isPartitioned()) {
+            log.warn("parcels.partitioning.enabled is set but the parcels table is not partitioned; "
+                + "migrate it with db/partitioning/migrate-parcels-to-partitioned.sql");
+            return;
+        }
+        YearMonth current = YearMonth.now();
+        for (int i = 0; i <= monthsAhead; i++) {
+            createPartition(current.plusMonths(i));
+        }
+    }
+
+    private boolean isPartitioned() {
+        return jdbcTemplate.queryForList(
+            "SELECT CAST(relkind AS varchar) FROM pg_class WHERE oid = to_regclass('parcels')", String.class)
+            .contains("p");
+    }
+
+    private void createPartition(YearMonth month) {
+        String name = "parcels_p" + month.format(PARTITION_SUFFIX);
+        LocalDate from = month.atDay(1);
+        LocalDate to = month.plusMonths(1).atDay(1);
+        try {
+            transactionTemplate.executeWithoutResult(status -> jdbcTemplate.execute(
+                "CREATE TABLE IF NOT EXISTS " + name + " PARTITION OF parcels "
+                    + "FOR VALUES FROM ('" + from + "') TO ('" + to + "')"));
+        } catch (DataAccessException e) {
+            // Typically rows for that month already sit in parcels_default; they must be moved out first
+            log.error("Could not create partition {} for [{}, {})", name, from, to, e);
+        }
+    }
+}
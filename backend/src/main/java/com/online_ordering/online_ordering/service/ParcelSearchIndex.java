@@ -0,0 +1,481 @@
+package com.online_ordering.online_ordering.service;
+
+import com.online_ordering.online_ordering.config.ReadRouting;
+import com.online_ordering.online_ordering.entity.Parcel;
+import com.online_ordering.online_ordering.repository.ParcelRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+// In-memory inverted index over the free-text parcel fields (names, phones, addresses, description, tracking
+// number). Terms live in a sorted dictionary, so every query word matches as a prefix with one range scan; phone
+// numbers are also indexed by their reversed digits, so a digits-only query word matches the end of a number as
+// well. Updated by every write in ParcelService and the bulk/write-behind inserts, rebuilt from the database at
+// startup, caught up every catch-up-interval with rows changed by other instances or directly in the database,
+// and bounded to the max-documents most recent parcels (older ones are evicted by id).
+@Component
+public class ParcelSearchIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(ParcelSearchIndex.class);
+
+    // Marks reversed phone digits; the tokenizer never produces it, so these terms only match on purpose
+    private static final String REVERSED_DIGITS = "~";
+
+    // Shortest digits-only query word also matched against the end of phone numbers
+    private static final int PHONE_SUFFIX_MIN = 4;
+
+    // Matching parcel ids, newest first, and how many matched in total
+    public static final class Hits {
+
+        private final List<Long> ids;
+
+        private final int total;
+
+        Hits(List<Long> ids, int total) {
+            this.ids = ids;
+            this.total = total;
+        }
+
+        public List<Long> getIds() {
+            return ids;
+        }
+
+        public int getTotal() {
+            return total;
+        }
+    }
+
+    @Autowired
+    private ParcelRepository parcelRepository;
+
+    private final TransactionTemplate readOnlyTransaction;
+
+    private final int maxDocuments;
+
+    private final int minTermLength;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Guarded by lock
+    private Index index = new Index();
+
+    // Writes made while a rebuild streams the table, replayed onto the new index before it is swapped in
+    private List<Consumer<Index>> changesDuringRebuild;
+
+    private final Duration catchUpOverlap;
+
+    // Every row changed before this has been read by a rebuild or catch-up; null until the first rebuild
+    private volatile LocalDateTime caughtUpTo;
+
+    public ParcelSearchIndex(
+            PlatformTransactionManager transactionManager,
+            @Value("${parcels.search.max-documents:250000}") int maxDocuments,
+            @Value("${parcels.search.min-term-length:2}") int minTermLength,
+            @Value("${parcels.search.catch-up-overlap:30s}") Duration catchUpOverlap,
+            MeterRegistry meterRegistry) {
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.maxDocuments = maxDocuments;
+        this.minTermLength = minTermLength;
+        this.catchUpOverlap = catchUpOverlap;
+        Gauge.builder("parcels.search.documents", this, ParcelSearchIndex::documentCount)
+            .description("Parcels in the search index")
+            .register(meterRegistry);
+    }
+
+    // Add or replace a saved parcel's entry
+    public void index(Parcel parcel) {
+        if (parcel.getId() == null) {
+            return;
+        }
+        long id = parcel.getId();
+        String[] terms = terms(parcel.getTrackingNumber(), parcel.getSenderName(), parcel.getRecipientName(),
+            parcel.getSenderAddress(), parcel.getRecipientAddress(), parcel.getDescription(),
+            parcel.getSenderPhone(), parcel.getRecipientPhone());
+        apply(index -> index.put(id, terms));
+    }
+
+    public void remove(Long id) {
+        apply(index -> index.remove(id));
+    }
+
+    // Parcels matching every word of the query as a term prefix, newest first, at most limit of them.
+    // Words shorter than min-term-length are ignored.
+    public Hits search(String query, int limit) {
+        List<String[]> words = new ArrayList<>();
+        for (String word : new LinkedHashSet<>(tokenize(query))) {
+            if (word.length() < minTermLength) {
+                continue;
+            }
+            words.add(word.length() >= PHONE_SUFFIX_MIN && word.chars().allMatch(Character::isDigit)
+                ? new String[] {word, REVERSED_DIGITS + new StringBuilder(word).reverse()}
+                : new String[] {word});
+        }
+        if (words.isEmpty()) {
+            throw new IllegalArgumentException(
+                "Search needs at least one word of " + minTermLength + " or more letters or digits");
+        }
+
+        lock.readLock().lock();
+        try {
+            // Expand the most selective word, then filter its candidates by the others through their term lists
+            words.sort(Comparator.comparingLong(index::postingCount));
+            long[] candidates = index.matching(words.get(0));
+            List<String[]> rest = words.subList(1, words.size());
+            List<Long> ids = new ArrayList<>(Math.min(limit, candidates.length));
+            int matches = 0;
+            for (int i = candidates.length - 1; i >= 0; i--) {
+                if (index.matchesAll(candidates[i], rest)) {
+                    if (matches++ < limit) {
+                        ids.add(candidates[i]);
+                    }
+                }
+            }
+            return new Hits(ids, matches);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    void rebuildOnStartup() {
+        rebuild();
+    }
+
+    // Rebuild from the database, newest parcels first, while the current index keeps answering searches
+    public synchronized Map<String, Object> rebuild() {
+        lock.writeLock().lock();
+        try {
+            changesDuringRebuild = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        LocalDateTime started = LocalDateTime.now();
+        Index rebuilt = new Index();
+        try {
+            // On the primary: a replica could miss writes made just before the rebuild, which are not replayed
+            ReadRouting.onPrimary(() -> readOnlyTransaction.execute(status -> {
+                try (Stream<Object[]> rows = parcelRepository.streamSearchFieldsNewestFirst()) {
+                    rows.limit(maxDocuments).forEach(row -> rebuilt.appendDescending((Long) row[0], terms(
+                        (String) row[1], (String) row[2], (String) row[3], (String) row[4],
+                        (String) row[5], (String) row[6], (String) row[7], (String) row[8])));
+                }
+                return null;
+            }));
+            rebuilt.finishDescending();
+        } catch (RuntimeException e) {
+            lock.writeLock().lock();
+            try {
+                changesDuringRebuild = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            throw e;
+        }
+
+        lock.writeLock().lock();
+        try {
+            // Each recorded write is at least as new as anything the stream read, so replaying them last is safe
+            changesDuringRebuild.forEach(change -> change.accept(rebuilt));
+            changesDuringRebuild = null;
+            index = rebuilt;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        caughtUpTo = started;
+        Map<String, Object> stats = getStats();
+        log.info("Search index rebuilt: {}", stats);
+        return stats;
+    }
+
+    // Re-indexes the parcels whose updatedAt is at most catch-up-overlap before the previous rebuild or catch-up
+    // started, which covers transactions still open at that point and clock differences between instances.
+    // Re-indexing a parcel is idempotent, so the overlap only costs a few repeated rows. Deletes made elsewhere are
+    // not seen: searches skip parcels that no longer exist, and the next rebuild drops them.
+    @Scheduled(fixedDelayString = "${parcels.search.catch-up-interval:PT1M}",
+        initialDelayString = "${parcels.search.catch-up-interval:PT1M}")
+    public synchronized int catchUp() {
+        LocalDateTime since = caughtUpTo;
+        if (since == null) {
+            return 0;
+        }
+        LocalDateTime started = LocalDateTime.now();
+        int[] count = new int[1];
+        // On the primary, like rebuild: a lagging replica could hold back rows past the overlap
+        ReadRouting.onPrimary(() -> readOnlyTransaction.execute(status -> {
+            try (Stream<Object[]> rows = parcelRepository.streamSearchFieldsUpdatedSince(since.minus(catchUpOverlap))) {
+                rows.forEach(row -> {
+                    long id = (Long) row[0];
+                    String[] terms = terms((String) row[1], (String) row[2], (String) row[3], (String) row[4],
+                        (String) row[5], (String) row[6], (String) row[7], (String) row[8]);
+                    apply(index -> index.put(id, terms));
+                    count[0]++;
+                });
+            }
+            return null;
+        }));
+        caughtUpTo = started;
+        if (count[0] > 0) {
+            log.debug("Search index caught up with {} parcels changed since {}", count[0], since);
+        }
+        return count[0];
+    }
+
+    public Map<String, Object> getStats() {
+        lock.readLock().lock();
+        try {
+            Map<String, Object> stats = new LinkedHashMap<>();
+            stats.put("documents", index.documents.size());
+            stats.put("terms", index.terms.size());
+            stats.put("maxDocuments", maxDocuments);
+            return stats;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private int documentCount() {
+        lock.readLock().lock();
+        try {
+            return index.documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void apply(Consumer<Index> change) {
+        lock.writeLock().lock();
+        try {
+            change.accept(index);
+            if (changesDuringRebuild != null) {
+                changesDuringRebuild.add(change);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Words of every field, plus each phone number's digits forwards and reversed
+    private String[] terms(String trackingNumber, String senderName, String recipientName, String senderAddress,
+                           String recipientAddress, String description, String senderPhone, String recipientPhone) {
+        Set<String> terms = new LinkedHashSet<>();
+        for (String text : new String[] {
+                trackingNumber, senderName, recipientName, senderAddress, recipientAddress, description,
+                senderPhone, recipientPhone}) {
+            terms.addAll(tokenize(text));
+        }
+        for (String phone : new String[] {senderPhone, recipientPhone}) {
+            String digits = phone == null ? "" : phone.replaceAll("\\D", "");
+            if (!digits.isEmpty()) {
+                terms.add(digits);
+                terms.add(REVERSED_DIGITS + new StringBuilder(digits).reverse());
+            }
+        }
+        terms.removeIf(term -> term.length() < minTermLength);
+        return terms.toArray(String[]::new);
+    }
+
+    private static List<String> tokenize(String text) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+        List<String> tokens = new ArrayList<>();
+        for (String token : text.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+")) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    // Term dictionary plus each document's terms, which removal and multi-word filtering need
+    private final class Index {
+
+        final TreeMap<String, PostingList> terms = new TreeMap<>();
+
+        final TreeMap<Long, String[]> documents = new TreeMap<>();
+
+        void put(long id, String[] docTerms) {
+            remove(id);
+            String[] stored = new String[docTerms.length];
+            for (int i = 0; i < docTerms.length; i++) {
+                PostingList postings = terms.computeIfAbsent(docTerms[i], PostingList::new);
+                postings.add(id);
+                // Share the dictionary's copy of the term
+                stored[i] = postings.term;
+            }
+            documents.put(id, stored);
+            while (documents.size() > maxDocuments) {
+                remove(documents.firstKey());
+            }
+        }
+
+        void remove(long id) {
+            String[] docTerms = documents.remove(id);
+            if (docTerms == null) {
+                return;
+            }
+            for (String term : docTerms) {
+                PostingList postings = terms.get(term);
+                postings.remove(id);
+                if (postings.size == 0) {
+                    terms.remove(term);
+                }
+            }
+        }
+
+        // Rebuild path: ids arrive in descending order, so postings are appended and reversed once at the end
+        void appendDescending(long id, String[] docTerms) {
+            String[] stored = new String[docTerms.length];
+            for (int i = 0; i < docTerms.length; i++) {
+                PostingList postings = terms.computeIfAbsent(docTerms[i], PostingList::new);
+                postings.append(id);
+                stored[i] = postings.term;
+            }
+            documents.put(id, stored);
+        }
+
+        void finishDescending() {
+            terms.values().forEach(PostingList::reverse);
+        }
+
+        long postingCount(String[] prefixes) {
+            long count = 0;
+            for (String prefix : prefixes) {
+                for (PostingList postings : withPrefix(prefix)) {
+                    count += postings.size;
+                }
+            }
+            return count;
+        }
+
+        // Sorted, distinct ids of documents having a term that starts with any of the prefixes
+        long[] matching(String[] prefixes) {
+            long[] ids = new long[(int) postingCount(prefixes)];
+            int size = 0;
+            for (String prefix : prefixes) {
+                for (PostingList postings : withPrefix(prefix)) {
+                    System.arraycopy(postings.ids, 0, ids, size, postings.size);
+                    size += postings.size;
+                }
+            }
+            Arrays.sort(ids, 0, size);
+            int distinct = 0;
+            for (int i = 0; i < size; i++) {
+                if (distinct == 0 || ids[distinct - 1] != ids[i]) {
+                    ids[distinct++] = ids[i];
+                }
+            }
+            return Arrays.copyOf(ids, distinct);
+        }
+
+        boolean matchesAll(long id, List<String[]> words) {
+            String[] docTerms = documents.get(id);
+            for (String[] prefixes : words) {
+                if (!matchesAny(docTerms, prefixes)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private boolean matchesAny(String[] docTerms, String[] prefixes) {
+            for (String term : docTerms) {
+                for (String prefix : prefixes) {
+                    if (term.startsWith(prefix)) {
+                        return true;
+                    }
+                }
+            }
+            return false;
+        }
+
+        private Iterable<PostingList> withPrefix(String prefix) {
+            return terms.subMap(prefix, true, prefix + Character.MAX_VALUE, false).values();
+        }
+    }
+
+    // Sorted ids of the documents containing one term
+    private static final class PostingList {
+
+        final String term;
+
+        long[] ids = new long[1];
+
+        int size;
+
+        PostingList(String term) {
+            this.term = term;
+        }
+
+        void add(long id) {
+            // New parcels have the highest ids, so this is almost always an append
+            if (size == 0 || id > ids[size - 1]) {
+                append(id);
+                return;
+            }
+            int at = Arrays.binarySearch(ids, 0, size, id);
+            if (at >= 0) {
+                return;
+            }
+            at = -at - 1;
+            grow();
+            System.arraycopy(ids, at, ids, at + 1, size - at);
+            ids[at] = id;
+            size++;
+        }
+
+        void append(long id) {
+            grow();
+            ids[size++] = id;
+        }
+
+        void remove(long id) {
+            int at = Arrays.binarySearch(ids, 0, size, id);
+            if (at >= 0) {
+                System.arraycopy(ids, at + 1, ids, at, size - at - 1);
+                size--;
+            }
+        }
+
+        void reverse() {
+            for (int i = 0, j = size - 1; i < j; i++, j--) {
+                long swap = ids[i];
+                ids[i] = ids[j];
+                ids[j] = swap;
+            }
+        }
+
+        private void grow() {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+        }
+    }
+}
@@ -1,15 +1,53 @@
 package com.online_ordering.online_ordering.service;
 
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.online_ordering.online_ordering.config.ReadRouting;
+import com.online_ordering.online_ordering.dto.ParcelPage;
 import com.online_ordering.online_ordering.dto.ParcelRequest;
+import com.online_ordering.online_ordering.dto.ParcelSearchResult;
+import com.online_ordering.online_ordering.dto.ParcelStats;
+import com.online_ordering.online_ordering.dto.ParcelSummary;
+import com.online_ordering.online_ordering.entity.ArchivedParcel;
 import com.online_ordering.online_ordering.entity.Parcel;
+import com.online_ordering.online_ordering.entity.ParcelStatusEntry;
+import com.online_ordering.online_ordering.repository.ParcelArchiveRepository;
 import com.online_ordering.online_ordering.repository.ParcelRepository;
+import com.online_ordering.online_ordering.repository.ParcelStatusEntryRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Limit;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
-import java.util.UUID;
+import java.util.OptionalLong;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
 
 @Service
 public class ParcelService {
@@ -17,12 +55,93 @@ public class ParcelService {
     @Autowired
     private ParcelRepository parcelRepository;
 
-    // Create a new parcel booking
+    @Autowired
+    private TrackingCache trackingCache;
+
+    @Autowired
+    private TrackingNumberGenerator trackingNumberGenerator;
+
+    @Autowired
+    private ShippingRateEngine shippingRateEngine;
+
+    @Autowired
+    private PendingBookings pendingBookings;
+
+    @Autowired
+    private RecentWrites recentWrites;
+
+    @Autowired
+    private ParcelSearchIndex searchIndex;
+
+    @Autowired
+    private ParcelArchiveRepository archiveRepository;
+
+    @Autowired
+    private ParcelMetrics parcelMetrics;
+
+    @Autowired
+    private ParcelStatsCounters statsCounters;
+
+    @Autowired
+    private ParcelEventBus parcelEventBus;
+
+    @Autowired
+    private ParcelStatusEntryRepository statusEntryRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private Validator validator;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    // Writes that change a parcel and append to its history commit both or neither
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${parcels.pagination.default-size:50}")
+    private int defaultPageSize;
+
+    @Value("${parcels.pagination.max-size:500}")
+    private int maxPageSize;
+
+    // Extra attempts for a status change that lost a version check to a concurrent write
+    @Value("${parcels.concurrency.status-retries:3}")
+    private int statusRetries;
+
+    @Value("${parcels.partitioning.enabled:false}")
+    private boolean partitioned;
+
+    @Value("${parcels.partitioning.lookup-slack:1d}")
+    private Duration lookupSlack;
+
+    @Autowired
+    void setTransactionManager(PlatformTransactionManager transactionManager) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    // Create a new parcel booking, with the first entry of its history in the same transaction
     public Parcel createParcel(ParcelRequest request) {
+        Parcel saved = transactionTemplate.execute(status -> {
+            Parcel parcel = parcelRepository.save(buildNewParcel(request));
+            statusEntryRepository.save(
+                new ParcelStatusEntry(parcel.getId(), parcel.getStatus(), null, parcel.getCreatedAt()));
+            return parcel;
+        });
+        recentWrites.record(saved);
+        parcelMetrics.recordCreated(1);
+        statsCounters.recordCreated(saved.getStatus(), saved.getDeliveryType());
+        searchIndex.index(saved);
+        return saved;
+    }
+
+    // Build a new, unsaved parcel from a booking request (shared with bulk booking)
+    Parcel buildNewParcel(ParcelRequest request) {
         Parcel parcel = new Parcel();
         
         // Generate unique tracking number
-        parcel.setTrackingNumber(generateTrackingNumber());
+        parcel.setTrackingNumber(trackingNumberGenerator.next());
         
         // Set sender information
         parcel.setSenderName(request.getSenderName());
@@ -45,12 +164,8 @@ public class ParcelService {
         parcel.setParcelType(request.getParcelType());
         parcel.setDeliveryType(request.getDeliveryType());
         
-        // Calculate shipping cost based on weight and delivery type
-        double shippingCost = calculateShippingCost(
-            request.getWeight(), 
-            request.getDeliveryType()
-        );
-        parcel.setShippingCost(shippingCost);
+        // Calculate shipping cost from the rate card
+        parcel.setShippingCost(calculateShippingCost(parcel));
         
         // Set estimated delivery date
         parcel.setEstimatedDeliveryDate(
@@ -60,66 +175,207 @@ public class ParcelService {
         // Set initial status
         parcel.setStatus(Parcel.ParcelStatus.PENDING);
         
-        return parcelRepository.save(parcel);
+        return parcel;
     }
 
-    // Get all parcels
-    public List<Parcel> getAllParcels() {
-        return parcelRepository.findAll();
+    // Get one keyset page of parcels ordered by id
+    @Transactional(readOnly = true)
+    public ParcelPage<Parcel> getParcelsPage(String cursor, Integer size) {
+        int pageSize = resolvePageSize(size);
+        long afterId = decodeCursor(cursor);
+
+        // Fetch one extra row to learn whether another page exists without a count query
+        List<Parcel> rows = parcelRepository.findByIdGreaterThanOrderByIdAsc(afterId, Limit.of(pageSize + 1));
+        if (rows.size() <= pageSize) {
+            return new ParcelPage<>(rows, rows.size(), null);
+        }
+        List<Parcel> items = rows.subList(0, pageSize);
+        String nextCursor = encodeCursor(items.get(pageSize - 1).getId());
+        return new ParcelPage<>(items, pageSize, nextCursor);
     }
 
-    // Get parcel by ID
+    // Stream all parcels in id order, detaching each row once consumed so memory stays flat
+    @Transactional(readOnly = true)
+    public void streamAllParcels(Consumer<Parcel> consumer) {
+        try (Stream<Parcel> parcels = parcelRepository.streamAllOrderById()) {
+            parcels.forEach(parcel -> {
+                consumer.accept(parcel);
+                entityManager.detach(parcel);
+            });
+        }
+    }
+
+    // Get parcel by ID. findById is a read-write transaction, so this (like every load-modify-save path) reads
+    // the primary and returns a current version for the ETag.
     public Optional<Parcel> getParcelById(Long id) {
         return parcelRepository.findById(id);
     }
 
-    // Get parcel by tracking number
+    // Get parcel by tracking number (served from the tracking cache when possible); write-behind bookings
+    // not yet in the database are answered from memory, archived parcels from the archive table
     public Optional<Parcel> getParcelByTrackingNumber(String trackingNumber) {
+        Parcel pending = pendingBookings.get(trackingNumber);
+        if (pending != null) {
+            return Optional.of(pending);
+        }
+        return readYourWrites(recentWrites.isRecentTrackingNumber(trackingNumber),
+            () -> trackingCache.get(trackingNumber, tn -> findLiveByTrackingNumber(tn)
+                .or(() -> archiveRepository.findByTrackingNumber(tn).map(ArchivedParcel::toParcel))));
+    }
+
+    // On a partitioned parcels table, a time-sequence tracking number is looked up in the partition(s) covering
+    // its issue time, with lookup-slack either side for clock and time zone differences; anything else searches
+    // every partition
+    private Optional<Parcel> findLiveByTrackingNumber(String trackingNumber) {
+        if (partitioned) {
+            OptionalLong issuedAt = TimeSequenceTrackingNumberGenerator.issuedAtMillis(trackingNumber);
+            if (issuedAt.isPresent()) {
+                LocalDateTime createdAt = LocalDateTime.ofInstant(
+                    Instant.ofEpochMilli(issuedAt.getAsLong()), ZoneId.systemDefault());
+                return parcelRepository.findByTrackingNumberAndCreatedAtBetween(
+                    trackingNumber, createdAt.minus(lookupSlack), createdAt.plus(lookupSlack));
+            }
+        }
         return parcelRepository.findByTrackingNumber(trackingNumber);
     }
 
     // Get parcels by sender email
-    public List<Parcel> getParcelsBySenderEmail(String email) {
-        return parcelRepository.findBySenderEmail(email);
+    @Transactional(readOnly = true)
+    public List<ParcelSummary> getParcelsBySenderEmail(String email) {
+        return readYourWrites(recentWrites.isRecentEmail(email),
+            () -> withArchived(parcelRepository.findSummariesBySenderEmail(email),
+                archiveRepository.findSummariesBySenderEmail(email)));
     }
 
     // Get parcels by recipient email
-    public List<Parcel> getParcelsByRecipientEmail(String email) {
-        return parcelRepository.findByRecipientEmail(email);
+    @Transactional(readOnly = true)
+    public List<ParcelSummary> getParcelsByRecipientEmail(String email) {
+        return readYourWrites(recentWrites.isRecentEmail(email),
+            () -> withArchived(parcelRepository.findSummariesByRecipientEmail(email),
+                archiveRepository.findSummariesByRecipientEmail(email)));
     }
 
     // Get parcels by user email (as sender or recipient)
-    public List<Parcel> getParcelsByUserEmail(String email) {
-        return parcelRepository.findBySenderEmailOrRecipientEmail(email, email);
+    @Transactional(readOnly = true)
+    public List<ParcelSummary> getParcelsByUserEmail(String email) {
+        return readYourWrites(recentWrites.isRecentEmail(email),
+            () -> withArchived(parcelRepository.findSummariesByUserEmail(email),
+                archiveRepository.findSummariesByUserEmail(email)));
+    }
+
+    // Read-only transactions go to a replica when replicas are configured; a key written within the sticky
+    // window is read from the primary instead. The connection is fetched lazily, at the first statement, so
+    // this works inside an already open read-only transaction.
+    private static <T> T readYourWrites(boolean recentlyWritten, Supplier<T> read) {
+        return recentlyWritten ? ReadRouting.onPrimary(read) : read.get();
+    }
+
+    // Live parcels followed by archived ones; a parcel archived between the two queries appears only once
+    private static List<ParcelSummary> withArchived(List<ParcelSummary> live, List<ParcelSummary> archived) {
+        if (archived.isEmpty()) {
+            return live;
+        }
+        Set<Long> liveIds = new HashSet<>();
+        for (ParcelSummary summary : live) {
+            liveIds.add(summary.getId());
+        }
+        List<ParcelSummary> all = new ArrayList<>(live);
+        for (ParcelSummary summary : archived) {
+            if (!liveIds.contains(summary.getId())) {
+                all.add(summary);
+            }
+        }
+        return all;
+    }
+
+    // Search names, phones, addresses, description and tracking number by word prefix, newest first
+    public ParcelSearchResult searchParcels(String query, Integer limit) {
+        ParcelSearchIndex.Hits hits = searchIndex.search(query, resolvePageSize(limit));
+        if (hits.getIds().isEmpty()) {
+            return new ParcelSearchResult(List.of(), hits.getTotal());
+        }
+        Map<Long, ParcelSummary> byId = new HashMap<>();
+        for (ParcelSummary summary : parcelRepository.findSummariesByIds(hits.getIds())) {
+            byId.put(summary.getId(), summary);
+        }
+        // A parcel deleted since it was found is simply skipped
+        List<ParcelSummary> items = hits.getIds().stream().map(byId::get).filter(Objects::nonNull).toList();
+        return new ParcelSearchResult(items, hits.getTotal());
     }
 
     // Get parcels by status
-    public List<Parcel> getParcelsByStatus(Parcel.ParcelStatus status) {
-        return parcelRepository.findByStatus(status);
+    @Transactional(readOnly = true)
+    public List<ParcelSummary> getParcelsByStatus(Parcel.ParcelStatus status) {
+        return parcelRepository.findSummariesByStatus(status);
     }
 
     // Update parcel status
     public Parcel updateParcelStatus(Long id, Parcel.ParcelStatus status) {
-        Optional<Parcel> parcelOptional = parcelRepository.findById(id);
-        if (parcelOptional.isPresent()) {
-            Parcel parcel = parcelOptional.get();
+        return updateParcelStatus(id, status, null);
+    }
+
+    // Update parcel status and append it, with the optional location, to the tracking history.
+    // A concurrent write to the same parcel makes the version check fail; the change is then re-applied
+    // to a fresh read, up to statusRetries more times. Must not run inside an outer transaction, whose
+    // persistence context would still hold the stale row.
+    public Parcel updateParcelStatus(Long id, Parcel.ParcelStatus status, String location) {
+        for (int attempt = 0; ; attempt++) {
+            try {
+                return applyStatus(id, status, location);
+            } catch (OptimisticLockingFailureException e) {
+                if (attempt >= statusRetries) {
+                    parcelMetrics.recordConflict("status", "rejected");
+                    throw e;
+                }
+                parcelMetrics.recordConflict("status", "retried");
+            }
+        }
+    }
+
+    // The status and its history entry commit together, so the timeline can neither miss nor outlive a change.
+    // Not group-committed with other requests: Hibernate never JDBC-batches @DynamicUpdate statements, so a shared
+    // writer would send the parcels' UPDATEs one after another on one connection (see StatusUpdateBenchmark)
+    private Parcel applyStatus(Long id, Parcel.ParcelStatus status, String location) {
+        Parcel.ParcelStatus[] previousStatus = new Parcel.ParcelStatus[1];
+        Parcel saved = transactionTemplate.execute(tx -> {
+            Parcel parcel = parcelRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("Parcel not found with id: " + id));
+            previousStatus[0] = parcel.getStatus();
             parcel.setStatus(status);
-            
+
             // If delivered, set actual delivery date
             if (status == Parcel.ParcelStatus.DELIVERED) {
                 parcel.setActualDeliveryDate(LocalDateTime.now());
             }
-            
-            return parcelRepository.save(parcel);
-        }
-        throw new RuntimeException("Parcel not found with id: " + id);
+
+            Parcel updated = parcelRepository.saveAndFlush(parcel);
+            statusEntryRepository.save(new ParcelStatusEntry(updated.getId(), status, location, updated.getUpdatedAt()));
+            return updated;
+        });
+        recentWrites.record(saved);
+        trackingCache.evict(saved.getTrackingNumber());
+        parcelMetrics.recordTransition(previousStatus[0], status);
+        statsCounters.recordChange(previousStatus[0], saved.getDeliveryType(), status, saved.getDeliveryType());
+        parcelEventBus.publishStatusChange(saved, previousStatus[0]);
+        return saved;
     }
 
     // Update parcel
     public Parcel updateParcel(Long id, ParcelRequest request) {
+        return updateParcel(id, request, null);
+    }
+
+    // Update parcel only if it is still at expectedVersion (null skips the check). A concurrent write, before or
+    // during this call, surfaces as OptimisticLockingFailureException rather than being overwritten.
+    public Parcel updateParcel(Long id, ParcelRequest request, Long expectedVersion) {
         Optional<Parcel> parcelOptional = parcelRepository.findById(id);
         if (parcelOptional.isPresent()) {
             Parcel parcel = parcelOptional.get();
+            if (expectedVersion != null && !expectedVersion.equals(parcel.getVersion())) {
+                parcelMetrics.recordConflict("update", "rejected");
+                throw new ObjectOptimisticLockingFailureException(Parcel.class, id);
+            }
+            Parcel.DeliveryType previousDeliveryType = parcel.getDeliveryType();
             
             // Update sender information
             parcel.setSenderName(request.getSenderName());
@@ -143,49 +399,220 @@ public class ParcelService {
             parcel.setDeliveryType(request.getDeliveryType());
             
             // Recalculate shipping cost
-            double shippingCost = calculateShippingCost(
-                request.getWeight(), 
-                request.getDeliveryType()
-            );
-            parcel.setShippingCost(shippingCost);
+            parcel.setShippingCost(calculateShippingCost(parcel));
             
             // Recalculate estimated delivery date
             parcel.setEstimatedDeliveryDate(
                 calculateEstimatedDeliveryDate(request.getDeliveryType())
             );
             
-            return parcelRepository.save(parcel);
+            Parcel saved;
+            try {
+                saved = parcelRepository.save(parcel);
+            } catch (OptimisticLockingFailureException e) {
+                parcelMetrics.recordConflict("update", "rejected");
+                throw e;
+            }
+            recentWrites.record(saved);
+            trackingCache.evict(saved.getTrackingNumber());
+            statsCounters.recordChange(saved.getStatus(), previousDeliveryType, saved.getStatus(), saved.getDeliveryType());
+            searchIndex.index(saved);
+            return saved;
         }
         throw new RuntimeException("Parcel not found with id: " + id);
     }
 
-    // Delete parcel
+    // Apply a JSON Merge Patch (RFC 7396) to the editable fields, so only the supplied fields change (null clears
+    // an optional field). Shipping cost is recalculated only when a pricing input (weight, dimensions, parcel or
+    // delivery type) changes, and the ETA only when delivery type changes. Parcel is @DynamicUpdate, so the UPDATE
+    // carries just the changed columns.
+    public Parcel patchParcel(Long id, JsonNode patch, Long expectedVersion) {
+        if (patch == null || !patch.isObject()) {
+            throw new IllegalArgumentException("Merge patch must be a JSON object");
+        }
+        Parcel parcel = parcelRepository.findById(id)
+            .orElseThrow(() -> new RuntimeException("Parcel not found with id: " + id));
+        if (expectedVersion != null && !expectedVersion.equals(parcel.getVersion())) {
+            parcelMetrics.recordConflict("patch", "rejected");
+            throw new ObjectOptimisticLockingFailureException(Parcel.class, id);
+        }
+
+        ParcelRequest merged = toRequest(parcel);
+        try {
+            objectMapper.readerForUpdating(merged)
+                .with(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+                .readValue(patch);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Invalid merge patch: " + e.getMessage());
+        }
+        List<String> errors = new ArrayList<>();
+        for (ConstraintViolation<ParcelRequest> violation : validator.validate(merged)) {
+            errors.add(violation.getPropertyPath() + ": " + violation.getMessage());
+        }
+        if (!errors.isEmpty()) {
+            throw new IllegalArgumentException(String.join("; ", errors));
+        }
+
+        Parcel.DeliveryType previousDeliveryType = parcel.getDeliveryType();
+        boolean costInputsChanged = !Objects.equals(parcel.getWeight(), merged.getWeight())
+            || !Objects.equals(parcel.getLength(), merged.getLength())
+            || !Objects.equals(parcel.getWidth(), merged.getWidth())
+            || !Objects.equals(parcel.getHeight(), merged.getHeight())
+            || parcel.getParcelType() != merged.getParcelType()
+            || previousDeliveryType != merged.getDeliveryType();
+
+        // Setting an unchanged value leaves the column clean, so copying every field is safe
+        parcel.setSenderName(merged.getSenderName());
+        parcel.setSenderEmail(merged.getSenderEmail());
+        parcel.setSenderPhone(merged.getSenderPhone());
+        parcel.setSenderAddress(merged.getSenderAddress());
+        parcel.setRecipientName(merged.getRecipientName());
+        parcel.setRecipientEmail(merged.getRecipientEmail());
+        parcel.setRecipientPhone(merged.getRecipientPhone());
+        parcel.setRecipientAddress(merged.getRecipientAddress());
+        parcel.setWeight(merged.getWeight());
+        parcel.setLength(merged.getLength());
+        parcel.setWidth(merged.getWidth());
+        parcel.setHeight(merged.getHeight());
+        parcel.setDescription(merged.getDescription());
+        parcel.setParcelType(merged.getParcelType());
+        parcel.setDeliveryType(merged.getDeliveryType());
+        if (costInputsChanged) {
+            parcel.setShippingCost(calculateShippingCost(parcel));
+        }
+        if (previousDeliveryType != merged.getDeliveryType()) {
+            parcel.setEstimatedDeliveryDate(calculateEstimatedDeliveryDate(merged.getDeliveryType()));
+        }
+
+        Parcel saved;
+        try {
+            saved = parcelRepository.save(parcel);
+        } catch (OptimisticLockingFailureException e) {
+            parcelMetrics.recordConflict("patch", "rejected");
+            throw e;
+        }
+        recentWrites.record(saved);
+        trackingCache.evict(saved.getTrackingNumber());
+        statsCounters.recordChange(saved.getStatus(), previousDeliveryType, saved.getStatus(), saved.getDeliveryType());
+        searchIndex.index(saved);
+        return saved;
+    }
+
+    // Editable fields of a parcel as a request, the document a merge patch is applied to
+    private static ParcelRequest toRequest(Parcel parcel) {
+        ParcelRequest request = new ParcelRequest();
+        request.setSenderName(parcel.getSenderName());
+        request.setSenderEmail(parcel.getSenderEmail());
+        request.setSenderPhone(parcel.getSenderPhone());
+        request.setSenderAddress(parcel.getSenderAddress());
+        request.setRecipientName(parcel.getRecipientName());
+        request.setRecipientEmail(parcel.getRecipientEmail());
+        request.setRecipientPhone(parcel.getRecipientPhone());
+        request.setRecipientAddress(parcel.getRecipientAddress());
+        request.setWeight(parcel.getWeight());
+        request.setLength(parcel.getLength());
+        request.setWidth(parcel.getWidth());
+        request.setHeight(parcel.getHeight());
+        request.setDescription(parcel.getDescription());
+        request.setParcelType(parcel.getParcelType());
+        request.setDeliveryType(parcel.getDeliveryType());
+        return request;
+    }
+
+    // Delete parcel, together with its history
     public void deleteParcel(Long id) {
-        parcelRepository.deleteById(id);
+        Optional<Parcel> deleted = transactionTemplate.execute(status -> {
+            Optional<Parcel> parcel = parcelRepository.findById(id);
+            parcel.ifPresent(p -> {
+                parcelRepository.delete(p);
+                statusEntryRepository.deleteByParcelId(id);
+            });
+            return parcel;
+        });
+        deleted.ifPresent(parcel -> {
+            recentWrites.record(parcel);
+            trackingCache.evict(parcel.getTrackingNumber());
+            statsCounters.recordDeleted(parcel.getStatus(), parcel.getDeliveryType());
+            searchIndex.remove(id);
+        });
     }
 
-    // Helper method to generate tracking number
-    private String generateTrackingNumber() {
-        return "TRK" + UUID.randomUUID().toString().substring(0, 8).toUpperCase();
+    // Get the tracking history of a parcel, oldest first
+    public List<ParcelStatusEntry> getStatusHistory(Long id) {
+        if (!parcelRepository.existsById(id) && !archiveRepository.existsById(id)) {
+            throw new RuntimeException("Parcel not found with id: " + id);
+        }
+        return statusEntryRepository.findByParcelIdOrderByOccurredAtAscIdAsc(id);
     }
 
-    // Helper method to calculate shipping cost
-    private double calculateShippingCost(double weight, Parcel.DeliveryType deliveryType) {
-        double baseCost = 5.0; // Base cost
-        double weightCost = weight * 2.0; // $2 per kg
-        
-        double deliveryMultiplier = switch (deliveryType) {
-            case STANDARD -> 1.0;
-            case EXPRESS -> 1.5;
-            case SAME_DAY -> 2.5;
-            case OVERNIGHT -> 2.0;
-        };
-        
-        return (baseCost + weightCost) * deliveryMultiplier;
+    // Get the tracking history of a parcel by tracking number, oldest first
+    public List<ParcelStatusEntry> getStatusHistoryByTrackingNumber(String trackingNumber) {
+        Parcel parcel = getParcelByTrackingNumber(trackingNumber)
+            .orElseThrow(() -> new RuntimeException("Parcel not found with tracking number: " + trackingNumber));
+        return readYourWrites(recentWrites.isRecentTrackingNumber(trackingNumber),
+            () -> statusEntryRepository.findByParcelIdOrderByOccurredAtAscIdAsc(parcel.getId()));
+    }
+
+    // Get parcel counts per status and delivery type
+    public ParcelStats getStats() {
+        return statsCounters.snapshot();
+    }
+
+    // Get search index document and term counts
+    public Map<String, Object> getSearchIndexStats() {
+        return searchIndex.getStats();
+    }
+
+    public Map<String, Object> rebuildSearchIndex() {
+        return searchIndex.rebuild();
+    }
+
+    // Get tracking cache hit/miss/eviction counters
+    public Map<String, Object> getTrackingCacheStats() {
+        return trackingCache.getStats();
+    }
+
+    // Helper method to clamp the requested page size
+    private int resolvePageSize(Integer size) {
+        if (size == null) {
+            return defaultPageSize;
+        }
+        if (size <= 0) {
+            throw new IllegalArgumentException("Page size must be positive");
+        }
+        return Math.min(size, maxPageSize);
+    }
+
+    // Helper methods to encode/decode the opaque pagination cursor
+    private String encodeCursor(Long lastId) {
+        return Base64.getUrlEncoder().withoutPadding()
+            .encodeToString(("id:" + lastId).getBytes(StandardCharsets.US_ASCII));
+    }
+
+    private long decodeCursor(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return 0L;
+        }
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.US_ASCII);
+            if (!decoded.startsWith("id:")) {
+                throw new IllegalArgumentException("Invalid cursor: " + cursor);
+            }
+            return Long.parseLong(decoded.substring(3));
+        } catch (IllegalArgumentException e) {
+            // Covers both malformed Base64 and NumberFormatException
+            throw new IllegalArgumentException("Invalid cursor: " + cursor);
+        }
+    }
+
+    // Helper method to price a parcel from its weight, dimensions and types (bookings use the default zone)
+    double calculateShippingCost(Parcel parcel) {
+        return shippingRateEngine.shippingCost(null, parcel.getWeight(), parcel.getLength(), parcel.getWidth(),
+            parcel.getHeight(), parcel.getParcelType(), parcel.getDeliveryType());
     }
 
     // Helper method to calculate estimated delivery date
-    private LocalDateTime calculateEstimatedDeliveryDate(Parcel.DeliveryType deliveryType) {
+    LocalDateTime calculateEstimatedDeliveryDate(Parcel.DeliveryType deliveryType) {
         LocalDateTime now = LocalDateTime.now();
         
         return switch (deliveryType) {
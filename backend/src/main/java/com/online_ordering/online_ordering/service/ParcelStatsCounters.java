@@ -0,0 +1,138 @@
+package com.online_ordering.online_ordering.service;
+
+import com.online_ordering.online_ordering.config.ReadRouting;
+import com.online_ordering.online_ordering.dto.ParcelStats;
+import com.online_ordering.online_ordering.entity.Parcel;
+import com.online_ordering.online_ordering.repository.ParcelArchiveRepository;
+import com.online_ordering.online_ordering.repository.ParcelRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+// Live parcel counts per (status, delivery type), kept up to date by ParcelService writes so dashboards never
+// touch the parcels table. Archived parcels are still counted: archiving moves them, it does not delete them. A
+// periodic GROUP BY over parcels and parcels_archive corrects drift from writes made by other instances or
+// directly in the database.
+@Component
+public class ParcelStatsCounters {
+
+    private static final Logger log = LoggerFactory.getLogger(ParcelStatsCounters.class);
+
+    private static final Parcel.ParcelStatus[] STATUSES = Parcel.ParcelStatus.values();
+
+    private static final Parcel.DeliveryType[] DELIVERY_TYPES = Parcel.DeliveryType.values();
+
+    @Autowired
+    private ParcelRepository parcelRepository;
+
+    @Autowired
+    private ParcelArchiveRepository archiveRepository;
+
+    // Striped adders: concurrent writers to the same cell do not contend on one CAS
+    private final LongAdder[][] counts = new LongAdder[STATUSES.length][DELIVERY_TYPES.length];
+
+    private volatile LocalDateTime reconciledAt;
+
+    public ParcelStatsCounters() {
+        for (int s = 0; s < STATUSES.length; s++) {
+            for (int d = 0; d < DELIVERY_TYPES.length; d++) {
+                counts[s][d] = new LongAdder();
+            }
+        }
+    }
+
+    public void recordCreated(Parcel.ParcelStatus status, Parcel.DeliveryType deliveryType) {
+        cell(status, deliveryType).increment();
+    }
+
+    public void recordDeleted(Parcel.ParcelStatus status, Parcel.DeliveryType deliveryType) {
+        cell(status, deliveryType).decrement();
+    }
+
+    public void recordChange(Parcel.ParcelStatus fromStatus, Parcel.DeliveryType fromType,
+                             Parcel.ParcelStatus toStatus, Parcel.DeliveryType toType) {
+        if (fromStatus == toStatus && fromType == toType) {
+            return;
+        }
+        cell(fromStatus, fromType).decrement();
+        cell(toStatus, toType).increment();
+    }
+
+    // O(1) in the number of parcels: sums a fixed 8 x 4 grid of adders
+    public ParcelStats snapshot() {
+        Map<Parcel.ParcelStatus, Long> byStatus = new EnumMap<>(Parcel.ParcelStatus.class);
+        Map<Parcel.DeliveryType, Long> byDeliveryType = new EnumMap<>(Parcel.DeliveryType.class);
+        long total = 0;
+        for (Parcel.DeliveryType deliveryType : DELIVERY_TYPES) {
+            byDeliveryType.put(deliveryType, 0L);
+        }
+        for (Parcel.ParcelStatus status : STATUSES) {
+            long statusTotal = 0;
+            for (Parcel.DeliveryType deliveryType : DELIVERY_TYPES) {
+                long count = cell(status, deliveryType).sum();
+                statusTotal += count;
+                byDeliveryType.merge(deliveryType, count, Long::sum);
+            }
+            byStatus.put(status, statusTotal);
+            total += statusTotal;
+        }
+        return new ParcelStats(total, byStatus, byDeliveryType, reconciledAt);
+    }
+
+    // Moves every cell to the GROUP BY result by adding the difference rather than resetting, so increments
+    // made while the query runs are not lost (a write committed during the query may be counted twice until
+    // the next reconciliation)
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${parcels.stats.reconcile-interval:PT5M}",
+        initialDelayString = "${parcels.stats.reconcile-interval:PT5M}")
+    public void reconcile() {
+        long[][] before = new long[STATUSES.length][DELIVERY_TYPES.length];
+        for (int s = 0; s < STATUSES.length; s++) {
+            for (int d = 0; d < DELIVERY_TYPES.length; d++) {
+                before[s][d] = counts[s][d].sum();
+            }
+        }
+
+        long[][] actual = new long[STATUSES.length][DELIVERY_TYPES.length];
+        // On the primary: a lagging replica would "correct" away the writes it has not replayed yet
+        addCounts(actual, ReadRouting.onPrimary(parcelRepository::countByStatusAndDeliveryType));
+        addCounts(actual, ReadRouting.onPrimary(archiveRepository::countByStatusAndDeliveryType));
+
+        long drift = 0;
+        for (int s = 0; s < STATUSES.length; s++) {
+            for (int d = 0; d < DELIVERY_TYPES.length; d++) {
+                long delta = actual[s][d] - before[s][d];
+                if (delta != 0) {
+                    counts[s][d].add(delta);
+                    drift += Math.abs(delta);
+                }
+            }
+        }
+        reconciledAt = LocalDateTime.now();
+        if (drift > 0) {
+            log.debug("Reconciled parcel stats counters, corrected drift of {}", drift);
+        }
+    }
+
+    private static void addCounts(long[][] actual, List<Object[]> rows) {
+        for (Object[] row : rows) {
+            Parcel.ParcelStatus status = (Parcel.ParcelStatus) row[0];
+            Parcel.DeliveryType deliveryType = (Parcel.DeliveryType) row[1];
+            actual[status.ordinal()][deliveryType.ordinal()] += (Long) row[2];
+        }
+    }
+
+    private LongAdder cell(Parcel.ParcelStatus status, Parcel.DeliveryType deliveryType) {
+        return counts[status.ordinal()][deliveryType.ordinal()];
+    }
+}
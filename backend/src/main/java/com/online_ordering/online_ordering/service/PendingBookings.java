@@ -0,0 +1,32 @@
+package com.online_ordering.online_ordering.service;
+
+import com.online_ordering.online_ordering.entity.Parcel;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Parcels accepted in write-behind mode but not yet in the database, keyed by tracking number, so tracking
+// lookups see a booking as soon as it has been acknowledged. Always empty in synchronous booking mode.
+// Per instance: until the drainer commits it, only the instance that accepted a booking can answer for it.
+@Component
+public class PendingBookings {
+
+    private final Map<String, Parcel> byTrackingNumber = new ConcurrentHashMap<>();
+
+    public Parcel get(String trackingNumber) {
+        return byTrackingNumber.get(trackingNumber);
+    }
+
+    public int size() {
+        return byTrackingNumber.size();
+    }
+
+    void put(Parcel parcel) {
+        byTrackingNumber.put(parcel.getTrackingNumber(), parcel);
+    }
+
+    void remove(String trackingNumber) {
+        byTrackingNumber.remove(trackingNumber);
+    }
+}
@@ -0,0 +1,143 @@
+package com.online_ordering.online_ordering.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+// LISTEN/NOTIFY on the primary database, which every node already connects to. Messages go out on the writing
+// transaction's connection, so Postgres delivers them when (and only if) it commits, and are received on a
+// dedicated connection outside the pool. Both need a session-mode connection: Supabase's transaction pooler
+// (port 6543) does not deliver notifications.
+@Component
+@ConditionalOnProperty(name = "parcels.l2-cache.invalidation", havingValue = "postgres")
+public class PostgresInvalidationTransport implements CacheInvalidationTransport {
+
+    private static final Logger log = LoggerFactory.getLogger(PostgresInvalidationTransport.class);
+
+    static final String CHANNEL = "parcels_cache_invalidation";
+
+    private static final int POLL_MILLIS = 1000;
+
+    private static final long RECONNECT_MILLIS = 5000;
+
+    private final DataSourceProperties dataSourceProperties;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    // Joins the writing transaction; a publish outside one gets a short transaction of its own
+    private final TransactionTemplate transactionTemplate;
+
+    private final List<Consumer<String>> subscribers = new CopyOnWriteArrayList<>();
+
+    private final List<Runnable> gapHandlers = new CopyOnWriteArrayList<>();
+
+    private volatile boolean running = true;
+
+    private Thread listener;
+
+    public PostgresInvalidationTransport(DataSourceProperties dataSourceProperties, JdbcTemplate jdbcTemplate,
+                                         PlatformTransactionManager transactionManager) {
+        this.dataSourceProperties = dataSourceProperties;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @PostConstruct
+    public void start() {
+        // e.g. an AOT build for prod started on H2 for a CDS training run
+        if (!dataSourceProperties.determineUrl().startsWith("jdbc:postgresql:")) {
+            log.warn("parcels.l2-cache.invalidation=postgres but {} is not a Postgres database; invalidations from "
+                + "other nodes will not be received", dataSourceProperties.determineUrl());
+            running = false;
+            return;
+        }
+        listener = new Thread(this::listen, "parcels-cache-invalidation");
+        listener.setDaemon(true);
+        listener.start();
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        if (listener != null) {
+            listener.join(2 * POLL_MILLIS);
+        }
+    }
+
+    @Override
+    public void publish(String message) {
+        transactionTemplate.executeWithoutResult(status ->
+            jdbcTemplate.queryForList("SELECT pg_notify(?, ?)", CHANNEL, message));
+    }
+
+    @Override
+    public void subscribe(Consumer<String> onMessage, Runnable onGap) {
+        subscribers.add(onMessage);
+        gapHandlers.add(onGap);
+    }
+
+    private void listen() {
+        while (running) {
+            try (Connection connection = DriverManager.getConnection(dataSourceProperties.determineUrl(),
+                    dataSourceProperties.determineUsername(), dataSourceProperties.determinePassword())) {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + CHANNEL);
+                }
+                // Anything published before this point (startup, or while disconnected) was missed
+                gapHandlers.forEach(Runnable::run);
+                PGConnection notifications = connection.unwrap(PGConnection.class);
+                while (running) {
+                    PGNotification[] received = notifications.getNotifications(POLL_MILLIS);
+                    if (received == null) {
+                        continue;
+                    }
+                    for (PGNotification notification : received) {
+                        deliver(notification.getParameter());
+                    }
+                }
+            } catch (SQLException e) {
+                if (running) {
+                    log.warn("Cache invalidation listener lost its connection; reconnecting in {} ms",
+                        RECONNECT_MILLIS, e);
+                    pause();
+                }
+            }
+        }
+    }
+
+    private void deliver(String message) {
+        for (Consumer<String> subscriber : subscribers) {
+            try {
+                subscriber.accept(message);
+            } catch (RuntimeException e) {
+                log.error("Cache invalidation message {} could not be applied", message, e);
+            }
+        }
+    }
+
+    private void pause() {
+        try {
+            Thread.sleep(RECONNECT_MILLIS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            running = false;
+        }
+    }
+}
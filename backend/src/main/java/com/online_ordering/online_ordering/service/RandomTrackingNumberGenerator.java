@@ -0,0 +1,17 @@
+package com.online_ordering.online_ordering.service;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.UUID;
+
+// Original scheme: 8 hex chars of a random UUID (~4 billion values, so collisions grow with volume)
+@Component
+@ConditionalOnProperty(name = "parcels.tracking.generator", havingValue = "random")
+public class RandomTrackingNumberGenerator implements TrackingNumberGenerator {
+
+    @Override
+    public String next() {
+        return "TRK" + UUID.randomUUID().toString().substring(0, 8).toUpperCase();
+    }
+}
@@ -0,0 +1,146 @@
+package com.online_ordering.online_ordering.service;
+
+import com.online_ordering.online_ordering.dto.RateCard;
+import com.online_ordering.online_ordering.entity.Parcel;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// A validated rate card compiled into flat arrays. Immutable once built, so any number of threads can price
+// against it without locks, and pricing allocates nothing.
+final class RateTable {
+
+    final RateCard card;
+
+    private final Map<String, Integer> zoneIndexes;
+
+    private final String[] zoneNames;
+
+    private final int defaultZone;
+
+    // Per zone, per bracket: upper bound (inclusive, +Infinity for the last), base and per-kg rate
+    private final double[][] upToKg;
+
+    private final double[][] base;
+
+    private final double[][] perKg;
+
+    private final double dimensionalDivisor;
+
+    // Indexed by DeliveryType / ParcelType ordinal
+    private final double[] deliveryMultipliers;
+
+    private final double[] surcharges;
+
+    RateTable(RateCard card) {
+        if (card.getZones() == null || card.getZones().isEmpty()) {
+            throw new IllegalArgumentException("Rate card has no zones");
+        }
+        if (card.getDimensionalDivisor() <= 0) {
+            throw new IllegalArgumentException("dimensionalDivisor must be positive");
+        }
+        this.card = card;
+        this.dimensionalDivisor = card.getDimensionalDivisor();
+
+        int zoneCount = card.getZones().size();
+        this.zoneIndexes = new HashMap<>();
+        this.zoneNames = new String[zoneCount];
+        this.upToKg = new double[zoneCount][];
+        this.base = new double[zoneCount][];
+        this.perKg = new double[zoneCount][];
+        int zone = 0;
+        for (Map.Entry<String, List<RateCard.WeightBracket>> entry : card.getZones().entrySet()) {
+            compileZone(zone, entry.getKey(), entry.getValue());
+            zoneIndexes.put(entry.getKey(), zone);
+            zoneNames[zone] = entry.getKey();
+            zone++;
+        }
+        Integer defaultIndex = zoneIndexes.get(card.getDefaultZone());
+        if (defaultIndex == null) {
+            throw new IllegalArgumentException("defaultZone " + card.getDefaultZone() + " is not one of the zones");
+        }
+        this.defaultZone = defaultIndex;
+
+        this.deliveryMultipliers = new double[Parcel.DeliveryType.values().length];
+        for (Parcel.DeliveryType deliveryType : Parcel.DeliveryType.values()) {
+            Double multiplier = card.getDeliveryMultipliers() == null ? null : card.getDeliveryMultipliers().get(deliveryType);
+            if (multiplier == null || multiplier <= 0) {
+                throw new IllegalArgumentException("Missing or non-positive delivery multiplier for " + deliveryType);
+            }
+            deliveryMultipliers[deliveryType.ordinal()] = multiplier;
+        }
+        // Parcel types without a surcharge cost nothing extra
+        this.surcharges = new double[Parcel.ParcelType.values().length];
+        if (card.getParcelTypeSurcharges() != null) {
+            card.getParcelTypeSurcharges().forEach((parcelType, surcharge) -> {
+                if (surcharge == null || surcharge < 0) {
+                    throw new IllegalArgumentException("Negative surcharge for " + parcelType);
+                }
+                surcharges[parcelType.ordinal()] = surcharge;
+            });
+        }
+    }
+
+    private void compileZone(int zone, String name, List<RateCard.WeightBracket> brackets) {
+        if (brackets == null || brackets.isEmpty()) {
+            throw new IllegalArgumentException("Zone " + name + " has no weight brackets");
+        }
+        upToKg[zone] = new double[brackets.size()];
+        base[zone] = new double[brackets.size()];
+        perKg[zone] = new double[brackets.size()];
+        double previous = 0;
+        for (int i = 0; i < brackets.size(); i++) {
+            RateCard.WeightBracket bracket = brackets.get(i);
+            boolean last = i == brackets.size() - 1;
+            if (bracket.getUpToKg() == null && !last) {
+                throw new IllegalArgumentException("Only the last bracket of zone " + name + " may be open-ended");
+            }
+            double bound = bracket.getUpToKg() == null ? Double.POSITIVE_INFINITY : bracket.getUpToKg();
+            if (last && bound != Double.POSITIVE_INFINITY) {
+                throw new IllegalArgumentException("The last bracket of zone " + name + " must be open-ended");
+            }
+            if (bound <= previous) {
+                throw new IllegalArgumentException("Brackets of zone " + name + " must ascend by upToKg");
+            }
+            if (bracket.getBase() < 0 || bracket.getPerKg() < 0) {
+                throw new IllegalArgumentException("Negative rate in zone " + name);
+            }
+            upToKg[zone][i] = bound;
+            base[zone][i] = bracket.getBase();
+            perKg[zone][i] = bracket.getPerKg();
+            previous = bound;
+        }
+    }
+
+    // -1 for an unknown zone
+    int zoneIndex(String zone) {
+        if (zone == null) {
+            return defaultZone;
+        }
+        Integer index = zoneIndexes.get(zone);
+        return index == null ? -1 : index;
+    }
+
+    String zoneName(int zone) {
+        return zoneNames[zone];
+    }
+
+    double chargeableWeight(double weight, double length, double width, double height) {
+        return Math.max(weight, length * width * height / dimensionalDivisor);
+    }
+
+    // Rounded to cents
+    double price(int zone, double chargeableWeight, Parcel.ParcelType parcelType, Parcel.DeliveryType deliveryType) {
+        double[] bounds = upToKg[zone];
+        int bracket = 0;
+        // Rate cards have a handful of brackets; a linear scan beats a binary search here
+        while (chargeableWeight > bounds[bracket]) {
+            bracket++;
+        }
+        double price = (base[zone][bracket] + perKg[zone][bracket] * chargeableWeight)
+            * deliveryMultipliers[deliveryType.ordinal()]
+            + surcharges[parcelType.ordinal()];
+        return Math.round(price * 100.0) / 100.0;
+    }
+}
@@ -0,0 +1,73 @@
+package com.online_ordering.online_ordering.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.online_ordering.online_ordering.entity.Parcel;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.OptionalLong;
+
+// Tracking numbers and emails of parcels written within the sticky window. Reads keyed by one of them go to
+// the primary, so whoever just booked or moved a parcel sees the change even on a lagging replica.
+// Disabled (nothing is recorded) when no replicas are configured.
+// The recorded keys are per instance. A time-sequence tracking number carries its issue time, so bookings made
+// through any instance are recognised from the number alone; status changes and email reads are only sticky on
+// the instance that made the write.
+@Component
+public class RecentWrites {
+
+    private final Cache<String, Boolean> keys;
+
+    private final long stickyWindowMillis;
+
+    public RecentWrites(
+            @Value("${parcels.datasource.replica-urls:}") String replicaUrls,
+            @Value("${parcels.datasource.sticky-window:5s}") Duration stickyWindow,
+            @Value("${parcels.datasource.sticky-max-keys:100000}") long maxKeys) {
+        this.stickyWindowMillis = stickyWindow.toMillis();
+        this.keys = replicaUrls.isBlank() ? null : Caffeine.newBuilder()
+            .expireAfterWrite(stickyWindow)
+            .maximumSize(maxKeys)
+            .build();
+    }
+
+    // Call before evicting the parcel from the tracking cache, so the reload cannot come from a stale replica
+    public void record(Parcel parcel) {
+        record(parcel.getTrackingNumber(), parcel.getSenderEmail(), parcel.getRecipientEmail());
+    }
+
+    public void record(String trackingNumber, String senderEmail, String recipientEmail) {
+        if (keys == null) {
+            return;
+        }
+        keys.put(trackingKey(trackingNumber), Boolean.TRUE);
+        keys.put(emailKey(senderEmail), Boolean.TRUE);
+        keys.put(emailKey(recipientEmail), Boolean.TRUE);
+    }
+
+    public boolean isRecentTrackingNumber(String trackingNumber) {
+        return keys != null
+            && (keys.getIfPresent(trackingKey(trackingNumber)) != null || isNewlyIssued(trackingNumber));
+    }
+
+    // Issued within the sticky window, wherever it was booked; the clocks of the instances only need to agree to
+    // within the window's margin over max-lag
+    private boolean isNewlyIssued(String trackingNumber) {
+        OptionalLong issuedAt = TimeSequenceTrackingNumberGenerator.issuedAtMillis(trackingNumber);
+        return issuedAt.isPresent() && System.currentTimeMillis() - issuedAt.getAsLong() < stickyWindowMillis;
+    }
+
+    public boolean isRecentEmail(String email) {
+        return keys != null && keys.getIfPresent(emailKey(email)) != null;
+    }
+
+    private static String trackingKey(String trackingNumber) {
+        return "tn:" + trackingNumber;
+    }
+
+    private static String emailKey(String email) {
+        return "email:" + email;
+    }
+}
@@ -0,0 +1,22 @@
+package com.online_ordering.online_ordering.service;
+
+import com.online_ordering.online_ordering.dto.QuoteRequest;
+import com.online_ordering.online_ordering.dto.QuoteResponse;
+import com.online_ordering.online_ordering.dto.RateCard;
+import com.online_ordering.online_ordering.entity.Parcel;
+
+// Prices parcels; bookings and the quote endpoints both go through it
+public interface ShippingRateEngine {
+
+    // Price of one parcel; a null zone means the rate card's default zone
+    double shippingCost(String zone, double weight, double length, double width, double height,
+                        Parcel.ParcelType parcelType, Parcel.DeliveryType deliveryType);
+
+    QuoteResponse quote(QuoteRequest request);
+
+    // The rate card currently in effect
+    RateCard getRateCard();
+
+    // Re-read the rate card from storage; the previous card stays in effect if the new one is invalid
+    RateCard reload();
+}
@@ -0,0 +1,45 @@
+package com.online_ordering.online_ordering.service;
+
+import com.online_ordering.online_ordering.entity.Parcel.ParcelStatus;
+
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+
+// Which status changes a parcel may go through; CANCELLED and RETURNED are final
+public final class StatusTransitions {
+
+    private static final Map<ParcelStatus, Set<ParcelStatus>> ALLOWED = new EnumMap<>(ParcelStatus.class);
+
+    static {
+        ALLOWED.put(ParcelStatus.PENDING, EnumSet.of(ParcelStatus.CONFIRMED, ParcelStatus.PICKED_UP, ParcelStatus.CANCELLED));
+        ALLOWED.put(ParcelStatus.CONFIRMED, EnumSet.of(ParcelStatus.PICKED_UP, ParcelStatus.CANCELLED));
+        ALLOWED.put(ParcelStatus.PICKED_UP, EnumSet.of(ParcelStatus.IN_TRANSIT, ParcelStatus.RETURNED));
+        ALLOWED.put(ParcelStatus.IN_TRANSIT, EnumSet.of(ParcelStatus.OUT_FOR_DELIVERY, ParcelStatus.RETURNED));
+        // A failed delivery attempt goes back to the hub
+        ALLOWED.put(ParcelStatus.OUT_FOR_DELIVERY,
+            EnumSet.of(ParcelStatus.DELIVERED, ParcelStatus.IN_TRANSIT, ParcelStatus.RETURNED));
+        ALLOWED.put(ParcelStatus.DELIVERED, EnumSet.of(ParcelStatus.RETURNED));
+        ALLOWED.put(ParcelStatus.CANCELLED, EnumSet.noneOf(ParcelStatus.class));
+        ALLOWED.put(ParcelStatus.RETURNED, EnumSet.noneOf(ParcelStatus.class));
+    }
+
+    private StatusTransitions() {
+    }
+
+    public static boolean isAllowed(ParcelStatus from, ParcelStatus to) {
+        return ALLOWED.get(from).contains(to);
+    }
+
+    // Every status from which the given status can be reached
+    public static Set<ParcelStatus> sourcesOf(ParcelStatus to) {
+        Set<ParcelStatus> sources = EnumSet.noneOf(ParcelStatus.class);
+        ALLOWED.forEach((from, targets) -> {
+            if (targets.contains(to)) {
+                sources.add(from);
+            }
+        });
+        return sources;
+    }
+}
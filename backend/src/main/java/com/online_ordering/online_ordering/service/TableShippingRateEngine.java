@@ -0,0 +1,84 @@
+package com.online_ordering.online_ordering.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.online_ordering.online_ordering.dto.QuoteRequest;
+import com.online_ordering.online_ordering.dto.QuoteResponse;
+import com.online_ordering.online_ordering.dto.RateCard;
+import com.online_ordering.online_ordering.entity.Parcel;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+// Rate engine backed by a JSON rate card (parcels.rates.location). The card is compiled into an immutable RateTable
+// and published through a volatile field, so a reload swaps it atomically while quotes keep running lock-free.
+@Component
+public class TableShippingRateEngine implements ShippingRateEngine {
+
+    private static final Logger log = LoggerFactory.getLogger(TableShippingRateEngine.class);
+
+    private final Resource location;
+
+    private final ObjectMapper objectMapper;
+
+    private volatile RateTable table;
+
+    public TableShippingRateEngine(
+            @Value("${parcels.rates.location:classpath:rates/rate-card.json}") Resource location,
+            ObjectMapper objectMapper) {
+        this.location = location;
+        this.objectMapper = objectMapper;
+        // An unreadable card at startup fails the application rather than pricing with nothing
+        reload();
+    }
+
+    @Override
+    public double shippingCost(String zone, double weight, double length, double width, double height,
+                               Parcel.ParcelType parcelType, Parcel.DeliveryType deliveryType) {
+        RateTable current = table;
+        return current.price(zoneIndex(current, zone),
+            current.chargeableWeight(weight, length, width, height), parcelType, deliveryType);
+    }
+
+    @Override
+    public QuoteResponse quote(QuoteRequest request) {
+        // One snapshot for the whole quote, so a concurrent reload cannot mix two cards
+        RateTable current = table;
+        int zone = zoneIndex(current, request.getZone());
+        double chargeableWeight = current.chargeableWeight(
+            request.getWeight(), request.getLength(), request.getWidth(), request.getHeight());
+        double price = current.price(zone, chargeableWeight, request.getParcelType(), request.getDeliveryType());
+        return new QuoteResponse(price, chargeableWeight, current.zoneName(zone), current.card.getVersion());
+    }
+
+    @Override
+    public RateCard getRateCard() {
+        return table.card;
+    }
+
+    @Override
+    public synchronized RateCard reload() {
+        RateCard card;
+        try (InputStream in = location.getInputStream()) {
+            card = objectMapper.readValue(in, RateCard.class);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Cannot read rate card " + location + ": " + e.getMessage(), e);
+        }
+        RateTable compiled = new RateTable(card);
+        table = compiled;
+        log.info("Loaded rate card {} from {}", card.getVersion(), location);
+        return card;
+    }
+
+    private static int zoneIndex(RateTable current, String zone) {
+        int index = current.zoneIndex(zone);
+        if (index < 0) {
+            throw new IllegalArgumentException("Unknown zone: " + zone);
+        }
+        return index;
+    }
+}
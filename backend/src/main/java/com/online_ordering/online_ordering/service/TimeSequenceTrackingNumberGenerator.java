@@ -0,0 +1,164 @@
+package com.online_ordering.online_ordering.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.net.InetAddress;
+import java.util.OptionalLong;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Time + node + sequence tracking numbers, Crockford Base32 with a Luhn mod 32 check character.
+// Layout of the 63-bit value: 41 bits of milliseconds since EPOCH_MILLIS (~69 years),
+// 10 bits of node id and 12 bits of per-millisecond sequence. Unique as long as every
+// running instance has its own node id.
+@Component
+@ConditionalOnProperty(name = "parcels.tracking.generator", havingValue = "time-sequence", matchIfMissing = true)
+public class TimeSequenceTrackingNumberGenerator implements TrackingNumberGenerator {
+
+    private static final Logger log = LoggerFactory.getLogger(TimeSequenceTrackingNumberGenerator.class);
+
+    static final String PREFIX = "TRK";
+
+    // 2025-01-01T00:00:00Z
+    static final long EPOCH_MILLIS = 1735689600000L;
+
+    static final int NODE_BITS = 10;
+    static final int SEQUENCE_BITS = 12;
+    static final long MAX_NODE_ID = (1L << NODE_BITS) - 1;
+    private static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+
+    // 63 bits -> 13 Base32 characters, plus one check character
+    private static final int VALUE_CHARS = 13;
+
+    private static final char[] ALPHABET = "0123456789ABCDEFGHJKMNPQRSTVWXYZ".toCharArray();
+
+    private final long nodeBits;
+
+    // (milliseconds since epoch << SEQUENCE_BITS) | sequence of the last issued number
+    private final AtomicLong lastState = new AtomicLong();
+
+    public TimeSequenceTrackingNumberGenerator(long nodeId) {
+        this(nodeId, false);
+    }
+
+    // A derived node id can collide with another instance's, so deployments that scale out require one
+    @Autowired
+    public TimeSequenceTrackingNumberGenerator(@Value("${parcels.tracking.node-id:-1}") long nodeId,
+                                               @Value("${parcels.tracking.node-id-required:false}") boolean required) {
+        if (nodeId < 0 && required) {
+            throw new IllegalStateException("parcels.tracking.node-id (TRACKING_NODE_ID) is required: give every "
+                + "running instance a distinct value between 0 and " + MAX_NODE_ID);
+        }
+        if (nodeId < 0) {
+            nodeId = fallbackNodeId();
+            log.warn("parcels.tracking.node-id is not set; derived node id {} from host and pid. "
+                + "Set a distinct node id per instance to guarantee unique tracking numbers", nodeId);
+        }
+        if (nodeId > MAX_NODE_ID) {
+            throw new IllegalArgumentException("parcels.tracking.node-id must be between 0 and " + MAX_NODE_ID);
+        }
+        this.nodeBits = nodeId << SEQUENCE_BITS;
+    }
+
+    @Override
+    public String next() {
+        long state = nextState();
+        long millis = state >>> SEQUENCE_BITS;
+        long value = (millis << (NODE_BITS + SEQUENCE_BITS)) | nodeBits | (state & SEQUENCE_MASK);
+        return encode(value);
+    }
+
+    // Lock-free: a clock that stalls or steps back keeps counting forward from the last issued state,
+    // and a full millisecond borrows the next one instead of spinning
+    private long nextState() {
+        long now = (System.currentTimeMillis() - EPOCH_MILLIS) << SEQUENCE_BITS;
+        while (true) {
+            long last = lastState.get();
+            long next = now > last ? now : last + 1;
+            if (lastState.compareAndSet(last, next)) {
+                return next;
+            }
+        }
+    }
+
+    static String encode(long value) {
+        char[] chars = new char[PREFIX.length() + VALUE_CHARS + 1];
+        PREFIX.getChars(0, PREFIX.length(), chars, 0);
+        for (int i = PREFIX.length() + VALUE_CHARS - 1; i >= PREFIX.length(); i--) {
+            chars[i] = ALPHABET[(int) (value & 31)];
+            value >>>= 5;
+        }
+        chars[chars.length - 1] = ALPHABET[checkValue(chars, PREFIX.length(), PREFIX.length() + VALUE_CHARS)];
+        return new String(chars);
+    }
+
+    // Validates format and check character of a tracking number produced by this generator
+    static boolean isValid(String trackingNumber) {
+        if (trackingNumber == null
+                || trackingNumber.length() != PREFIX.length() + VALUE_CHARS + 1
+                || !trackingNumber.startsWith(PREFIX)) {
+            return false;
+        }
+        char[] chars = trackingNumber.toCharArray();
+        for (int i = PREFIX.length(); i < chars.length; i++) {
+            if (indexOf(chars[i]) < 0) {
+                return false;
+            }
+        }
+        int end = chars.length - 1;
+        return ALPHABET[checkValue(chars, PREFIX.length(), end)] == chars[end];
+    }
+
+    // When a tracking number from this generator was issued, in milliseconds since the Unix epoch; empty for any
+    // other format (e.g. legacy random numbers). Parcels are created in the same millisecond, give or take
+    // clock borrowing, which is what lets a lookup target the parcels partition holding it.
+    static OptionalLong issuedAtMillis(String trackingNumber) {
+        if (!isValid(trackingNumber)) {
+            return OptionalLong.empty();
+        }
+        long value = 0;
+        for (int i = PREFIX.length(); i < PREFIX.length() + VALUE_CHARS; i++) {
+            value = (value << 5) | indexOf(trackingNumber.charAt(i));
+        }
+        return OptionalLong.of((value >>> (NODE_BITS + SEQUENCE_BITS)) + EPOCH_MILLIS);
+    }
+
+    // Luhn mod 32: catches every single-character error and most adjacent transpositions
+    private static int checkValue(char[] chars, int from, int to) {
+        int factor = 2;
+        int sum = 0;
+        for (int i = to - 1; i >= from; i--) {
+            int addend = factor * indexOf(chars[i]);
+            factor = factor == 2 ? 1 : 2;
+            sum += addend / 32 + addend % 32;
+        }
+        return (32 - sum % 32) % 32;
+    }
+
+    private static int indexOf(char c) {
+        if (c >= '0' && c <= '9') {
+            return c - '0';
+        }
+        for (int i = 10; i < ALPHABET.length; i++) {
+            if (ALPHABET[i] == c) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static long fallbackNodeId() {
+        String host;
+        try {
+            host = InetAddress.getLocalHost().getHostName();
+        } catch (Exception e) {
+            host = "unknown";
+        }
+        String identity = host + "/" + ProcessHandle.current().pid();
+        return (identity.hashCode() & 0x7fffffff) % (MAX_NODE_ID + 1);
+    }
+}
@@ -0,0 +1,100 @@
+package com.online_ordering.online_ordering.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.online_ordering.online_ordering.entity.Parcel;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+// Bounded read-through cache for tracking number lookups
+@Component
+public class TrackingCache {
+
+    private final Cache<String, Parcel> cache;
+
+    // Bumped on every eviction; a load that overlaps an eviction discards its own result
+    private final AtomicLong invalidations = new AtomicLong();
+
+    public TrackingCache(
+            @Value("${parcels.tracking-cache.maximum-size:100000}") long maximumSize,
+            @Value("${parcels.tracking-cache.ttl:60s}") Duration ttl,
+            MeterRegistry meterRegistry) {
+        this.cache = Caffeine.newBuilder()
+            .maximumSize(maximumSize)
+            .expireAfterWrite(ttl)
+            .recordStats()
+            .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "tracking");
+    }
+
+    // Only found parcels are cached, so a tracking number queried before it exists never sticks as a miss.
+    // The loader runs outside Caffeine's compute lock: a JDBC call inside ConcurrentHashMap.compute would
+    // block other keys in the same bin and pin virtual threads to their carrier.
+    public Optional<Parcel> get(String trackingNumber, Function<String, Optional<Parcel>> loader) {
+        Parcel cached = cache.getIfPresent(trackingNumber);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        long generation = invalidations.get();
+        Optional<Parcel> loaded = loader.apply(trackingNumber);
+        if (loaded.isPresent()) {
+            cache.put(trackingNumber, loaded.get());
+            // An eviction raced with the load, so the row we read may predate that write
+            if (invalidations.get() != generation) {
+                cache.invalidate(trackingNumber);
+            }
+        }
+        return loaded;
+    }
+
+    // Evict once the surrounding transaction commits, so a concurrent reader cannot reload the old row
+    public void evict(String trackingNumber) {
+        if (trackingNumber == null) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    invalidate(trackingNumber);
+                }
+            });
+        } else {
+            invalidate(trackingNumber);
+        }
+    }
+
+    public void clear() {
+        invalidations.incrementAndGet();
+        cache.invalidateAll();
+    }
+
+    // Immediately, for changes another node has already committed
+    void invalidate(String trackingNumber) {
+        invalidations.incrementAndGet();
+        cache.invalidate(trackingNumber);
+    }
+
+    public Map<String, Object> getStats() {
+        CacheStats stats = cache.stats();
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("size", cache.estimatedSize());
+        response.put("hitCount", stats.hitCount());
+        response.put("missCount", stats.missCount());
+        response.put("hitRate", stats.hitRate());
+        response.put("evictionCount", stats.evictionCount());
+        return response;
+    }
+}
@@ -0,0 +1,7 @@
+package com.online_ordering.online_ordering.service;
+
+// Produces tracking numbers that are unique without a database lookup
+public interface TrackingNumberGenerator {
+
+    String next();
+}
@@ -0,0 +1,352 @@
+package com.online_ordering.online_ordering.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.online_ordering.online_ordering.dto.ParcelRequest;
+import com.online_ordering.online_ordering.entity.Parcel;
+import com.online_ordering.online_ordering.entity.ParcelStatusEntry;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+// Write-behind booking: a new parcel gets its tracking number, is appended to the local BookingLog and acknowledged
+// without waiting for the database. A drainer thread tails the durable part of the log and inserts it in batches,
+// checkpointing after each commit. After a crash the drainer simply resumes from the checkpoint; rows that were
+// committed but not yet checkpointed are recognised by tracking number and skipped.
+@Service
+@ConditionalOnProperty(name = "parcels.booking.mode", havingValue = "write-behind")
+public class WriteBehindBookingService implements DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(WriteBehindBookingService.class);
+
+    private static final long MAX_BACKOFF_MILLIS = TimeUnit.SECONDS.toMillis(30);
+
+    @Autowired
+    private ParcelService parcelService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ParcelMetrics parcelMetrics;
+
+    @Autowired
+    private ParcelStatsCounters statsCounters;
+
+    @Autowired
+    private RecentWrites recentWrites;
+
+    @Autowired
+    private ParcelSearchIndex searchIndex;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final PendingBookings pendingBookings;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final Path directory;
+
+    private final int batchSize;
+
+    private final int maxPending;
+
+    private final Duration shutdownTimeout;
+
+    private final Counter deadLetters;
+
+    private final Thread drainer;
+
+    private BookingLog bookingLog;
+
+    // Records before this offset were in the log at startup and may already be in the database
+    private long recoveredUpTo;
+
+    private volatile boolean running = true;
+
+    public WriteBehindBookingService(
+            PlatformTransactionManager transactionManager,
+            @Value("${parcels.booking.write-behind.directory:data/booking-log}") Path directory,
+            @Value("${parcels.booking.write-behind.batch-size:${parcels.bulk.batch-size:50}}") int batchSize,
+            @Value("${parcels.booking.write-behind.max-pending:100000}") int maxPending,
+            @Value("${parcels.booking.write-behind.shutdown-timeout:10s}") Duration shutdownTimeout,
+            PendingBookings pendingBookings,
+            MeterRegistry meterRegistry) {
+        this.pendingBookings = pendingBookings;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.directory = directory;
+        this.batchSize = batchSize;
+        this.maxPending = maxPending;
+        this.shutdownTimeout = shutdownTimeout;
+        Gauge.builder("parcels.booking.pending", pendingBookings, PendingBookings::size)
+            .description("Write-behind bookings acknowledged but not yet in the database")
+            .register(meterRegistry);
+        this.deadLetters = Counter.builder("parcels.booking.dead_letters")
+            .description("Write-behind bookings the database rejected or the log could not read back")
+            .register(meterRegistry);
+        this.drainer = new Thread(this::drain, "booking-log-drainer");
+        this.drainer.setDaemon(true);
+    }
+
+    // Reopen the log and make bookings left over from a previous run visible again before draining them
+    @PostConstruct
+    void start() throws IOException {
+        bookingLog = new BookingLog(directory);
+        recoveredUpTo = bookingLog.durableEnd();
+        long position = bookingLog.checkpoint();
+        List<BookingLog.Entry> entries;
+        while (!(entries = bookingLog.read(position, batchSize)).isEmpty()) {
+            for (BookingLog.Entry entry : entries) {
+                // Unreadable records are dead-lettered by the drainer when it reaches them
+                Parcel parcel = parseOrNull(entry);
+                if (parcel != null) {
+                    pendingBookings.put(parcel);
+                }
+            }
+            position = entries.get(entries.size() - 1).endOffset;
+        }
+        if (pendingBookings.size() > 0) {
+            log.info("Replaying {} write-behind bookings from {}", pendingBookings.size(), directory);
+        }
+        drainer.start();
+    }
+
+    // Books a parcel once it is durable in the local log. Throws IllegalStateException when the backlog is full
+    // or the service is stopping, and UncheckedIOException when the log cannot be written; callers then book
+    // synchronously instead.
+    public Parcel book(ParcelRequest request) {
+        if (!running) {
+            throw new IllegalStateException("Write-behind booking is shutting down");
+        }
+        if (pendingBookings.size() >= maxPending) {
+            throw new IllegalStateException("Write-behind backlog is full");
+        }
+        Parcel parcel = parcelService.buildNewParcel(request);
+        // Registered first so the drainer can never insert it before it is pending
+        pendingBookings.put(parcel);
+        try {
+            bookingLog.append(objectMapper.writeValueAsString(parcel));
+        } catch (IOException e) {
+            pendingBookings.remove(parcel.getTrackingNumber());
+            throw new UncheckedIOException(e);
+        }
+        return parcel;
+    }
+
+    // Blocks until every acknowledged booking is in the database, or the timeout passes
+    public boolean awaitDrained(Duration timeout) throws InterruptedException {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        while (pendingBookings.size() > 0) {
+            if (System.nanoTime() >= deadline) {
+                return false;
+            }
+            Thread.sleep(10);
+        }
+        return true;
+    }
+
+    // Stop accepting, give the drainer a bounded time to catch up; anything left is replayed on the next start
+    @Override
+    public void destroy() throws InterruptedException, IOException {
+        running = false;
+        drainer.join(shutdownTimeout.toMillis());
+        if (!drainer.isAlive()) {
+            bookingLog.close();
+        }
+    }
+
+    private void drain() {
+        long position = bookingLog.checkpoint();
+        long backoff = 0;
+        while (running || position < bookingLog.durableEnd()) {
+            try {
+                List<BookingLog.Entry> entries = bookingLog.read(position, batchSize);
+                if (entries.isEmpty()) {
+                    if (bookingLog.truncateIfDrained(position)) {
+                        position = 0;
+                        recoveredUpTo = 0;
+                    }
+                    bookingLog.awaitDurableBeyond(position, 100, TimeUnit.MILLISECONDS);
+                    continue;
+                }
+                List<Parcel> parcels = new ArrayList<>(entries.size());
+                List<BookingLog.Entry> unreadable = new ArrayList<>();
+                for (BookingLog.Entry entry : entries) {
+                    Parcel parcel = parseOrNull(entry);
+                    if (parcel != null) {
+                        parcels.add(parcel);
+                    } else {
+                        unreadable.add(entry);
+                    }
+                }
+                if (!parcels.isEmpty()) {
+                    insert(parcels, position < recoveredUpTo);
+                }
+                // Retrying cannot fix these; set them aside instead of holding up every booking behind them
+                for (BookingLog.Entry entry : unreadable) {
+                    deadLetter(entry.line, "unreadable record ending at offset " + entry.endOffset, null);
+                }
+                position = entries.get(entries.size() - 1).endOffset;
+                bookingLog.checkpoint(position);
+                // Lookups move from memory to the database; keep them on the primary until replicas catch up
+                for (Parcel parcel : parcels) {
+                    recentWrites.record(parcel);
+                    pendingBookings.remove(parcel.getTrackingNumber());
+                }
+                backoff = 0;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException | IOException e) {
+                // Typically the database is unreachable: keep the records and retry with capped exponential backoff
+                backoff = backoff == 0 ? 100 : Math.min(backoff * 2, MAX_BACKOFF_MILLIS);
+                log.warn("Failed to drain booking log, retrying in {} ms", backoff, e);
+                try {
+                    Thread.sleep(backoff);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    // Insert a batch; when the database rejects it, retry row by row and set aside only the rows it rejects
+    private void insert(List<Parcel> parcels, boolean mayExist) {
+        List<Parcel> fresh = mayExist ? withoutExisting(parcels) : parcels;
+        try {
+            persist(fresh);
+        } catch (RuntimeException e) {
+            if (!isConstraintViolation(e)) {
+                throw e;
+            }
+            for (Parcel parcel : fresh) {
+                try {
+                    persist(List.of(parcel));
+                } catch (RuntimeException rowError) {
+                    if (!isConstraintViolation(rowError)) {
+                        throw rowError;
+                    }
+                    deadLetter(parcel, rowError);
+                }
+            }
+        }
+    }
+
+    // Same shape as BulkParcelService.insert: one transaction, JDBC batches, initial history in the same commit
+    private void persist(List<Parcel> parcels) {
+        if (parcels.isEmpty()) {
+            return;
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            for (int i = 0; i < parcels.size(); i++) {
+                Parcel parcel = parcels.get(i);
+                // A rolled-back attempt leaves the generated id behind
+                parcel.setId(null);
+                parcel.setVersion(null);
+                entityManager.persist(parcel);
+                entityManager.persist(new ParcelStatusEntry(
+                    parcel.getId(), parcel.getStatus(), null, parcel.getCreatedAt()));
+                if ((i + 1) % batchSize == 0) {
+                    entityManager.flush();
+                    entityManager.clear();
+                }
+            }
+            entityManager.flush();
+            entityManager.clear();
+        });
+        parcelMetrics.recordCreated(parcels.size());
+        for (Parcel parcel : parcels) {
+            statsCounters.recordCreated(parcel.getStatus(), parcel.getDeliveryType());
+            searchIndex.index(parcel);
+        }
+    }
+
+    private List<Parcel> withoutExisting(List<Parcel> parcels) {
+        Set<String> trackingNumbers = new HashSet<>();
+        for (Parcel parcel : parcels) {
+            trackingNumbers.add(parcel.getTrackingNumber());
+        }
+        Set<String> existing = new HashSet<>(entityManager
+            .createQuery("SELECT p.trackingNumber FROM Parcel p WHERE p.trackingNumber IN :trackingNumbers",
+                String.class)
+            .setParameter("trackingNumbers", trackingNumbers)
+            .getResultList());
+        return parcels.stream().filter(p -> !existing.contains(p.getTrackingNumber())).toList();
+    }
+
+    private void deadLetter(Parcel parcel, RuntimeException error) {
+        String record;
+        try {
+            record = objectMapper.writeValueAsString(parcel);
+        } catch (JsonProcessingException e) {
+            record = parcel.getTrackingNumber();
+        }
+        deadLetter(record, "booking " + parcel.getTrackingNumber() + " rejected by the database", error);
+    }
+
+    private void deadLetter(String record, String reason, Exception error) {
+        deadLetters.increment();
+        log.error("Write-behind booking log: {}; moved to dead-letter.log", reason, error);
+        try {
+            Files.writeString(directory.resolve("dead-letter.log"), record + "\n",
+                StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            log.error("Could not write dead letter for {}", reason, e);
+        }
+    }
+
+    // null when the record is corrupt or not a parcel
+    private Parcel parseOrNull(BookingLog.Entry entry) {
+        if (entry.isCorrupt()) {
+            log.warn("Booking log record ending at offset {} fails its checksum", entry.endOffset);
+            return null;
+        }
+        try {
+            return objectMapper.readValue(entry.payload, Parcel.class);
+        } catch (JsonProcessingException e) {
+            log.warn("Booking log record ending at offset {} is not a readable booking", entry.endOffset, e);
+            return null;
+        }
+    }
+
+    private static boolean isConstraintViolation(Throwable error) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof DataIntegrityViolationException
+                    || cause instanceof org.hibernate.exception.ConstraintViolationException) {
+                return true;
+            }
+            if (cause.getCause() == cause) {
+                break;
+            }
+        }
+        return false;
+    }
+}
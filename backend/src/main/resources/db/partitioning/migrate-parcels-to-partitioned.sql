@@ -0,0 +1,39 @@
+-- One-off migration of an existing, unpartitioned parcels table. Run with the application stopped, from this
+-- directory:
+--   psql "$DATABASE_URL" -v ON_ERROR_STOP=1 -f migrate-parcels-to-partitioned.sql
+-- then start the application with the "partitioned" profile. Copies every row, so plan for the table size;
+-- the old table is kept as parcels_unpartitioned until dropped by hand.
+BEGIN;
+
+ALTER TABLE parcels RENAME TO parcels_unpartitioned;
+ALTER TABLE parcels_unpartitioned RENAME CONSTRAINT parcels_pkey TO parcels_unpartitioned_pkey;
+ALTER INDEX idx_parcels_sender_email RENAME TO idx_parcels_unpartitioned_sender_email;
+ALTER INDEX idx_parcels_recipient_email RENAME TO idx_parcels_unpartitioned_recipient_email;
+ALTER INDEX idx_parcels_status_created_at RENAME TO idx_parcels_unpartitioned_status_created_at;
+ALTER INDEX idx_parcels_created_at RENAME TO idx_parcels_unpartitioned_created_at;
+ALTER INDEX idx_parcels_updated_at RENAME TO idx_parcels_unpartitioned_updated_at;
+
+\ir parcels-partitioned.sql
+
+-- One partition per month that has rows, named like the ones ParcelPartitionMaintainer creates
+DO $$
+DECLARE
+    month date;
+BEGIN
+    FOR month IN
+        SELECT DISTINCT date_trunc('month', created_at)::date FROM parcels_unpartitioned ORDER BY 1
+    LOOP
+        EXECUTE format('CREATE TABLE IF NOT EXISTS %I PARTITION OF parcels FOR VALUES FROM (%L) TO (%L)',
+            'parcels_p' || to_char(month, 'YYYY_MM'), month, month + interval '1 month');
+    END LOOP;
+END $$;
+
+INSERT INTO parcels SELECT
+    id, actual_delivery_date, created_at, delivery_type, description, estimated_delivery_date, height, length,
+    parcel_type, recipient_address, recipient_email, recipient_name, recipient_phone, sender_address, sender_email,
+    sender_name, sender_phone, shipping_cost, status, tracking_number, updated_at, version, weight, width
+FROM parcels_unpartitioned;
+
+COMMIT;
+
+ANALYZE parcels;
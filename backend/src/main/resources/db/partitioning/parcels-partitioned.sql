@@ -0,0 +1,46 @@
+-- Range-partitioned parcels table for Postgres, one partition per month of created_at. Run at startup by the
+-- "partitioned" profile, before Hibernate's schema update; every statement is a no-op once the objects exist.
+-- Monthly partitions are added ahead of time by ParcelPartitionMaintainer.
+--
+-- Unique keys of a partitioned table must contain the partition key, so the primary key is (id, created_at) and
+-- tracking numbers are unique per partition. Both are unique by construction (parcels_seq, and time + node +
+-- sequence tracking numbers), and a tracking number also encodes its created_at month, which is how lookups are
+-- pruned to one partition.
+CREATE TABLE IF NOT EXISTS parcels (
+    id bigint NOT NULL,
+    actual_delivery_date timestamp(6),
+    created_at timestamp(6) NOT NULL,
+    delivery_type varchar(255) NOT NULL CHECK (delivery_type IN ('STANDARD','EXPRESS','SAME_DAY','OVERNIGHT')),
+    description varchar(1000),
+    estimated_delivery_date timestamp(6),
+    height float(53) NOT NULL,
+    length float(53) NOT NULL,
+    parcel_type varchar(255) NOT NULL CHECK (parcel_type IN ('DOCUMENT','PACKAGE','FRAGILE','PERISHABLE','ELECTRONICS')),
+    recipient_address varchar(500) NOT NULL,
+    recipient_email varchar(255) NOT NULL,
+    recipient_name varchar(255) NOT NULL,
+    recipient_phone varchar(255) NOT NULL,
+    sender_address varchar(500) NOT NULL,
+    sender_email varchar(255) NOT NULL,
+    sender_name varchar(255) NOT NULL,
+    sender_phone varchar(255) NOT NULL,
+    shipping_cost float(53) NOT NULL,
+    status varchar(255) NOT NULL CHECK (status IN ('PENDING','CONFIRMED','PICKED_UP','IN_TRANSIT','OUT_FOR_DELIVERY','DELIVERED','CANCELLED','RETURNED')),
+    tracking_number varchar(255) NOT NULL,
+    updated_at timestamp(6) NOT NULL,
+    version bigint,
+    weight float(53) NOT NULL,
+    width float(53) NOT NULL,
+    CONSTRAINT parcels_partitioned_pkey PRIMARY KEY (id, created_at),
+    CONSTRAINT parcels_partitioned_tracking_number_key UNIQUE (tracking_number, created_at)
+) PARTITION BY RANGE (created_at);
+
+-- Catches rows outside every monthly partition; stays empty while the maintainer keeps partitions ahead of the clock
+CREATE TABLE IF NOT EXISTS parcels_default PARTITION OF parcels DEFAULT;
+
+-- Same names as the @Index declarations on Parcel; created on every partition
+CREATE INDEX IF NOT EXISTS idx_parcels_sender_email ON parcels (sender_email);
+CREATE INDEX IF NOT EXISTS idx_parcels_recipient_email ON parcels (recipient_email);
+CREATE INDEX IF NOT EXISTS idx_parcels_status_created_at ON parcels (status, created_at);
+CREATE INDEX IF NOT EXISTS idx_parcels_created_at ON parcels (created_at);
+CREATE INDEX IF NOT EXISTS idx_parcels_updated_at ON parcels (updated_at);
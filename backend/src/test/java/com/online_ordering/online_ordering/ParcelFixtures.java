@@ -0,0 +1,31 @@
+package com.online_ordering.online_ordering;
+
+import com.online_ordering.online_ordering.dto.ParcelRequest;
+import com.online_ordering.online_ordering.entity.Parcel;
+
+// A minimal valid booking request shared by the Spring tests; the benchmarks have their own in BenchmarkData
+public final class ParcelFixtures {
+
+	private ParcelFixtures() {
+	}
+
+	public static ParcelRequest sampleRequest(String senderEmail) {
+		ParcelRequest request = new ParcelRequest();
+		request.setSenderName("John Doe");
+		request.setSenderEmail(senderEmail);
+		request.setSenderPhone("+1234567890");
+		request.setSenderAddress("123 Main St, City, Country");
+		request.setRecipientName("Jane Smith");
+		request.setRecipientEmail("jane@example.com");
+		request.setRecipientPhone("+0987654321");
+		request.setRecipientAddress("456 Oak Ave, City, Country");
+		request.setWeight(2.5);
+		request.setLength(30.0);
+		request.setWidth(20.0);
+		request.setHeight(15.0);
+		request.setDescription("Books and documents");
+		request.setParcelType(Parcel.ParcelType.PACKAGE);
+		request.setDeliveryType(Parcel.DeliveryType.EXPRESS);
+		return request;
+	}
+}
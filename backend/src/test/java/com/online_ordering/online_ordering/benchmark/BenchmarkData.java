@@ -0,0 +1,74 @@
+package com.online_ordering.online_ordering.benchmark;
+
+import com.online_ordering.online_ordering.dto.ParcelRequest;
+import com.online_ordering.online_ordering.dto.ParcelSummary;
+import com.online_ordering.online_ordering.entity.Parcel;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+// Realistic fixtures shared by the benchmarks
+final class BenchmarkData {
+
+    private BenchmarkData() {
+    }
+
+    static ParcelRequest request(int i) {
+        ParcelRequest request = new ParcelRequest();
+        request.setSenderName("Sender " + i);
+        request.setSenderEmail("sender" + i + "@example.com");
+        request.setSenderPhone("+1234567890");
+        request.setSenderAddress("123 Main Street, Apartment " + i + ", Springfield, 12345, Country");
+        request.setRecipientName("Recipient " + i);
+        request.setRecipientEmail("recipient" + i + "@example.com");
+        request.setRecipientPhone("+0987654321");
+        request.setRecipientAddress("456 Oak Avenue, Suite " + i + ", Shelbyville, 54321, Country");
+        request.setWeight(2.5);
+        request.setLength(30.0);
+        request.setWidth(20.0);
+        request.setHeight(15.0);
+        request.setDescription("Books, documents and a few small electronics, packed in bubble wrap");
+        request.setParcelType(Parcel.ParcelType.PACKAGE);
+        request.setDeliveryType(Parcel.DeliveryType.EXPRESS);
+        return request;
+    }
+
+    static List<Parcel> parcels(int count) {
+        List<Parcel> parcels = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            ParcelRequest request = request(i);
+            Parcel parcel = new Parcel();
+            parcel.setId((long) i);
+            parcel.setTrackingNumber("TRK01JD5W2B7G" + String.format("%04d", i));
+            parcel.setSenderName(request.getSenderName());
+            parcel.setSenderEmail(request.getSenderEmail());
+            parcel.setSenderPhone(request.getSenderPhone());
+            parcel.setSenderAddress(request.getSenderAddress());
+            parcel.setRecipientName(request.getRecipientName());
+            parcel.setRecipientEmail(request.getRecipientEmail());
+            parcel.setRecipientPhone(request.getRecipientPhone());
+            parcel.setRecipientAddress(request.getRecipientAddress());
+            parcel.setWeight(request.getWeight());
+            parcel.setLength(request.getLength());
+            parcel.setWidth(request.getWidth());
+            parcel.setHeight(request.getHeight());
+            parcel.setDescription(request.getDescription());
+            parcel.setParcelType(request.getParcelType());
+            parcel.setDeliveryType(request.getDeliveryType());
+            parcel.setShippingCost(13.5);
+            parcel.setEstimatedDeliveryDate(LocalDateTime.now().plusDays(2));
+            parcels.add(parcel);
+        }
+        return parcels;
+    }
+
+    static List<ParcelSummary> summaries(List<Parcel> parcels) {
+        return parcels.stream()
+            .map(p -> new ParcelSummary(p.getId(), p.getTrackingNumber(), p.getSenderName(),
+                p.getRecipientName(), p.getParcelType(), p.getDeliveryType(), p.getStatus(),
+                p.getWeight(), p.getShippingCost(), p.getEstimatedDeliveryDate(),
+                p.getActualDeliveryDate(), p.getCreatedAt(), p.getUpdatedAt()))
+            .toList();
+    }
+}
@@ -0,0 +1,60 @@
+package com.online_ordering.online_ordering.benchmark;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.Statement;
+
+// Simulates a remote database: every statement execution sleeps while holding its pooled connection
+class DatabaseLatencyInjector implements BeanPostProcessor {
+
+    private final long latencyMillis;
+
+    DatabaseLatencyInjector(long latencyMillis) {
+        this.latencyMillis = latencyMillis;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof DataSource dataSource && latencyMillis > 0) {
+            return proxy(DataSource.class, dataSource);
+        }
+        return bean;
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T proxy(Class<T> type, T target) {
+        return (T) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] {type},
+            (proxy, method, args) -> {
+                if (Statement.class.isAssignableFrom(type) && method.getName().startsWith("execute")) {
+                    Thread.sleep(latencyMillis);
+                }
+                Object result = invoke(method, target, args);
+                return wrap(method, result);
+            });
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private Object wrap(Method method, Object result) {
+        Class<?> returnType = method.getReturnType();
+        if (result == null || !returnType.isInterface()) {
+            return result;
+        }
+        if (returnType == Connection.class || Statement.class.isAssignableFrom(returnType)) {
+            return proxy((Class) returnType, result);
+        }
+        return result;
+    }
+
+    private static Object invoke(Method method, Object target, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+}
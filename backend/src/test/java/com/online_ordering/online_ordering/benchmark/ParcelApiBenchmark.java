@@ -0,0 +1,110 @@
+package com.online_ordering.online_ordering.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.online_ordering.online_ordering.OnlineOrderingApplication;
+import com.online_ordering.online_ordering.dto.ParcelRequest;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// End-to-end HTTP benchmarks against the app running on the H2 dev profile
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ParcelApiBenchmark {
+
+    static final int BULK_SIZE = 1000;
+
+    private ConfigurableApplicationContext context;
+
+    private HttpClient client;
+
+    private String baseUrl;
+
+    private String createBody;
+
+    private String bulkBody;
+
+    private String trackingNumber;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        context = new SpringApplicationBuilder(OnlineOrderingApplication.class)
+            .profiles("dev")
+            // Command-line arguments, so they override application.properties
+            .run(
+                "--server.port=0",
+                "--spring.jpa.show-sql=false",
+                "--logging.level.root=WARN");
+        baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port") + "/api/parcels";
+        client = HttpClient.newHttpClient();
+
+        ObjectMapper objectMapper = context.getBean(ObjectMapper.class);
+        createBody = objectMapper.writeValueAsString(BenchmarkData.request(0));
+        List<ParcelRequest> bulk = new ArrayList<>(BULK_SIZE);
+        for (int i = 0; i < BULK_SIZE; i++) {
+            bulk.add(BenchmarkData.request(i));
+        }
+        bulkBody = objectMapper.writeValueAsString(bulk);
+
+        String created = send(post("", createBody)).body();
+        trackingNumber = objectMapper.readTree(created).get("trackingNumber").asText();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public int createParcel() throws Exception {
+        return send(post("", createBody)).statusCode();
+    }
+
+    // Reported per parcel so the score compares directly with createParcel
+    @Benchmark
+    @OperationsPerInvocation(BULK_SIZE)
+    public int bulkCreateParcels() throws Exception {
+        return send(post("/bulk", bulkBody)).statusCode();
+    }
+
+    @Benchmark
+    public int trackParcel() throws Exception {
+        return send(HttpRequest.newBuilder(URI.create(baseUrl + "/track/" + trackingNumber)).GET().build())
+            .statusCode();
+    }
+
+    private HttpRequest post(String path, String body) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+            .header("Content-Type", "application/json")
+            .POST(HttpRequest.BodyPublishers.ofString(body))
+            .build();
+    }
+
+    private HttpResponse<String> send(HttpRequest request) throws Exception {
+        return client.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+}
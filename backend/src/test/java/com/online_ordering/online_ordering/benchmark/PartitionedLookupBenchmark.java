@@ -0,0 +1,229 @@
+package com.online_ordering.online_ordering.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Point lookups on the single-table parcels layout vs the monthly range-partitioned one
+// (db/partitioning/parcels-partitioned.sql), against a real Postgres:
+//   PARCELS_BENCH_PG_URL=jdbc:postgresql://localhost:5432/postgres mvn -Pbenchmark -DskipTests test \
+//       -Djmh.includes=PartitionedLookupBenchmark
+// Loads `rows` parcels spread evenly over `months` into two scratch schemas (dropped afterwards). The pruned
+// lookup adds the +/- 1 day created_at window the service derives from a tracking number.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PartitionedLookupBenchmark {
+
+    private static final String SINGLE = "parcels_bench_single";
+
+    private static final String PARTITIONED = "parcels_bench_partitioned";
+
+    private static final int SAMPLES = 10_000;
+
+    @Param({"1000000"})
+    public int rows;
+
+    @Param({"24"})
+    public int months;
+
+    private Connection connection;
+
+    private String[] trackingNumbers;
+
+    private long[] ids;
+
+    private Timestamp[] windowStarts;
+
+    private Timestamp[] windowEnds;
+
+    private int next;
+
+    private PreparedStatement singleByTrackingNumber;
+
+    private PreparedStatement partitionedByTrackingNumber;
+
+    private PreparedStatement partitionedByTrackingNumberPruned;
+
+    private PreparedStatement singleById;
+
+    private PreparedStatement partitionedById;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        String url = System.getenv("PARCELS_BENCH_PG_URL");
+        if (url == null || url.isBlank()) {
+            throw new IllegalStateException("Set PARCELS_BENCH_PG_URL (plus _USER/_PASSWORD) to a Postgres database");
+        }
+        connection = DriverManager.getConnection(url, env("PARCELS_BENCH_PG_USER", "postgres"),
+            env("PARCELS_BENCH_PG_PASSWORD", "postgres"));
+        LocalDate firstMonth = LocalDate.now().withDayOfMonth(1).minusMonths(months - 1);
+
+        try (Statement statement = connection.createStatement()) {
+            for (String schema : List.of(SINGLE, PARTITIONED)) {
+                statement.execute("DROP SCHEMA IF EXISTS " + schema + " CASCADE");
+                statement.execute("CREATE SCHEMA " + schema);
+            }
+            statement.execute("SET search_path TO " + PARTITIONED);
+            statement.execute(schemaScript());
+            for (int i = 0; i < months; i++) {
+                LocalDate month = firstMonth.plusMonths(i);
+                statement.execute("CREATE TABLE parcels_p" + i + " PARTITION OF parcels FOR VALUES FROM ('"
+                    + month + "') TO ('" + month.plusMonths(1) + "')");
+            }
+
+            // Same columns and indexes as Hibernate creates for the single-table layout
+            statement.execute("CREATE TABLE " + SINGLE + ".parcels (LIKE parcels INCLUDING DEFAULTS INCLUDING CONSTRAINTS, "
+                + "PRIMARY KEY (id), UNIQUE (tracking_number))");
+            for (String column : List.of("sender_email", "recipient_email", "status, created_at", "created_at")) {
+                statement.execute("CREATE INDEX ON " + SINGLE + ".parcels (" + column + ")");
+            }
+
+            // Ids rise with created_at, as they do in production
+            long spanSeconds = Duration.between(firstMonth.atStartOfDay(),
+                firstMonth.plusMonths(months).atStartOfDay()).toSeconds() - 1;
+            statement.execute("INSERT INTO " + SINGLE + ".parcels (id, tracking_number, sender_name, sender_email, "
+                + "sender_phone, sender_address, recipient_name, recipient_email, recipient_phone, recipient_address, "
+                + "weight, length, width, height, description, parcel_type, delivery_type, status, shipping_cost, "
+                + "estimated_delivery_date, created_at, updated_at, version) "
+                + "SELECT g, 'TRK' || lpad(to_hex(g * 2654435761 % 4294967296), 10, '0') || g, 'Sender ' || g, "
+                + "'sender' || (g % 50000) || '@example.com', '+1555' || g, g || ' Sender Street, Springfield', "
+                + "'Recipient ' || g, 'recipient' || (g % 80000) || '@example.com', '+1666' || g, "
+                + "g || ' Recipient Avenue, Shelbyville', 2.5, 30, 20, 15, 'Books and documents', 'PACKAGE', "
+                + "'STANDARD', 'DELIVERED', 12.5, ts + interval '3 days', ts, ts, 0 "
+                + "FROM (SELECT g, timestamp '" + firstMonth + "' + (g * " + spanSeconds + " / " + rows
+                + ") * interval '1 second' AS ts FROM generate_series(1::bigint, " + rows + ") g) s");
+            statement.execute("INSERT INTO " + PARTITIONED + ".parcels SELECT * FROM " + SINGLE + ".parcels");
+            statement.execute("ANALYZE " + SINGLE + ".parcels");
+            statement.execute("ANALYZE " + PARTITIONED + ".parcels");
+            statement.execute("RESET search_path");
+        }
+
+        List<Object[]> sample = new ArrayList<>(SAMPLES);
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("SELECT id, tracking_number, created_at FROM " + SINGLE
+                 + ".parcels TABLESAMPLE BERNOULLI (" + Math.min(100.0, SAMPLES * 200.0 / rows) + ") LIMIT " + SAMPLES)) {
+            while (rs.next()) {
+                sample.add(new Object[] {rs.getLong(1), rs.getString(2), rs.getTimestamp(3).toLocalDateTime()});
+            }
+        }
+        ids = new long[sample.size()];
+        trackingNumbers = new String[sample.size()];
+        windowStarts = new Timestamp[sample.size()];
+        windowEnds = new Timestamp[sample.size()];
+        for (int i = 0; i < sample.size(); i++) {
+            ids[i] = (Long) sample.get(i)[0];
+            trackingNumbers[i] = (String) sample.get(i)[1];
+            LocalDateTime createdAt = (LocalDateTime) sample.get(i)[2];
+            windowStarts[i] = Timestamp.valueOf(createdAt.minusDays(1));
+            windowEnds[i] = Timestamp.valueOf(createdAt.plusDays(1));
+        }
+
+        singleByTrackingNumber = connection.prepareStatement(
+            "SELECT * FROM " + SINGLE + ".parcels WHERE tracking_number = ?");
+        partitionedByTrackingNumber = connection.prepareStatement(
+            "SELECT * FROM " + PARTITIONED + ".parcels WHERE tracking_number = ?");
+        partitionedByTrackingNumberPruned = connection.prepareStatement(
+            "SELECT * FROM " + PARTITIONED + ".parcels WHERE tracking_number = ? AND created_at BETWEEN ? AND ?");
+        singleById = connection.prepareStatement("SELECT * FROM " + SINGLE + ".parcels WHERE id = ?");
+        partitionedById = connection.prepareStatement("SELECT * FROM " + PARTITIONED + ".parcels WHERE id = ?");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP SCHEMA IF EXISTS " + SINGLE + " CASCADE");
+            statement.execute("DROP SCHEMA IF EXISTS " + PARTITIONED + " CASCADE");
+        }
+        connection.close();
+    }
+
+    @Benchmark
+    public long singleTableByTrackingNumber() throws SQLException {
+        int i = nextSample();
+        singleByTrackingNumber.setString(1, trackingNumbers[i]);
+        return read(singleByTrackingNumber);
+    }
+
+    // What a lookup costs without the encoded time: every partition's index is probed
+    @Benchmark
+    public long partitionedByTrackingNumber() throws SQLException {
+        int i = nextSample();
+        partitionedByTrackingNumber.setString(1, trackingNumbers[i]);
+        return read(partitionedByTrackingNumber);
+    }
+
+    @Benchmark
+    public long partitionedByTrackingNumberPruned() throws SQLException {
+        int i = nextSample();
+        partitionedByTrackingNumberPruned.setString(1, trackingNumbers[i]);
+        partitionedByTrackingNumberPruned.setTimestamp(2, windowStarts[i]);
+        partitionedByTrackingNumberPruned.setTimestamp(3, windowEnds[i]);
+        return read(partitionedByTrackingNumberPruned);
+    }
+
+    @Benchmark
+    public long singleTableById() throws SQLException {
+        singleById.setLong(1, ids[nextSample()]);
+        return read(singleById);
+    }
+
+    @Benchmark
+    public long partitionedById() throws SQLException {
+        partitionedById.setLong(1, ids[nextSample()]);
+        return read(partitionedById);
+    }
+
+    private int nextSample() {
+        next = next + 1 == ids.length ? 0 : next + 1;
+        return next;
+    }
+
+    private static long read(PreparedStatement statement) throws SQLException {
+        try (ResultSet rs = statement.executeQuery()) {
+            if (!rs.next()) {
+                throw new IllegalStateException("Sampled parcel not found");
+            }
+            return rs.getLong("id");
+        }
+    }
+
+    private static String schemaScript() throws Exception {
+        try (var in = PartitionedLookupBenchmark.class.getResourceAsStream("/db/partitioning/parcels-partitioned.sql")) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    private static String env(String name, String fallback) {
+        String value = System.getenv(name);
+        return value == null || value.isBlank() ? fallback : value;
+    }
+}
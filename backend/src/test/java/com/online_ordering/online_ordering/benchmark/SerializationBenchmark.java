@@ -0,0 +1,57 @@
+package com.online_ordering.online_ordering.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.online_ordering.online_ordering.dto.ParcelSummary;
+import com.online_ordering.online_ordering.entity.Parcel;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Jackson cost of list responses: full Parcel entities vs ParcelSummary projections
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SerializationBenchmark {
+
+    @Param({"10", "1000"})
+    private int size;
+
+    private ObjectMapper objectMapper;
+
+    private List<Parcel> parcels;
+
+    private List<ParcelSummary> summaries;
+
+    @Setup
+    public void setUp() {
+        // Same modules and defaults as the ObjectMapper Spring Boot configures
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        parcels = BenchmarkData.parcels(size);
+        summaries = BenchmarkData.summaries(parcels);
+    }
+
+    @Benchmark
+    public byte[] serializeParcels() throws Exception {
+        return objectMapper.writeValueAsBytes(parcels);
+    }
+
+    @Benchmark
+    public byte[] serializeSummaries() throws Exception {
+        return objectMapper.writeValueAsBytes(summaries);
+    }
+}
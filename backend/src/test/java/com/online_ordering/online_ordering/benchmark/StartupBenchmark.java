@@ -0,0 +1,181 @@
+package com.online_ordering.online_ordering.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.File;
+import java.net.ConnectException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Cold start of the packaged application, one fresh process per run: time until GET /health answers 200, then
+// the latency of the first booking and of the first tracking lookup. Build the artifacts of the modes first:
+//   mvn -Pcds -DskipTests package                        (jvm, aot, cds)
+//   mvn -Pnative -DskipTests native:compile              (native, needs GraalVM)
+//   mvn -Pstartup-benchmark -DskipTests test -Dstartup.modes=jvm,aot,cds,native
+// Arguments: modes, runs per mode, profiles, build directory, jar name.
+public final class StartupBenchmark {
+
+    private static final Duration START_TIMEOUT = Duration.ofSeconds(120);
+
+    private static final HttpClient CLIENT = HttpClient.newBuilder()
+        .connectTimeout(Duration.ofSeconds(5))
+        .build();
+
+    private StartupBenchmark() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        List<String> modes = Arrays.asList((args.length > 0 ? args[0] : "jvm,aot,cds").split(","));
+        int runs = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+        String profiles = args.length > 2 ? args[2] : "dev";
+        Path target = Path.of(args.length > 3 ? args[3] : "target");
+        String jar = (args.length > 4 ? args[4] : "online_ordering-0.0.1-SNAPSHOT") + ".jar";
+
+        String body = new ObjectMapper().writeValueAsString(BenchmarkData.request(0));
+        System.out.printf("%nprofiles=%s runs=%d (medians)%n", profiles, runs);
+        System.out.printf("%-8s %12s %16s %16s%n", "mode", "startup ms", "first POST ms", "first track ms");
+        for (String mode : modes) {
+            List<String> command = command(mode.trim(), target, jar);
+            if (command == null) {
+                System.out.printf("%-8s skipped: artifact not built%n", mode);
+                continue;
+            }
+            double[] startup = new double[runs];
+            double[] firstPost = new double[runs];
+            double[] firstTrack = new double[runs];
+            for (int run = 0; run < runs; run++) {
+                double[] result = run(command, profiles, body);
+                startup[run] = result[0];
+                firstPost[run] = result[1];
+                firstTrack[run] = result[2];
+            }
+            System.out.printf("%-8s %12.0f %16.1f %16.1f%n", mode, median(startup), median(firstPost), median(firstTrack));
+        }
+    }
+
+    // null when the mode's artifact is missing
+    private static List<String> command(String mode, Path target, String jar) {
+        String java = Path.of(System.getProperty("java.home"), "bin", "java").toString();
+        Path extracted = target.resolve("application");
+        List<String> command = new ArrayList<>();
+        switch (mode) {
+            case "jvm" -> {
+                if (!Files.exists(target.resolve(jar))) {
+                    return null;
+                }
+                command.addAll(List.of(java, "-jar", target.resolve(jar).toString()));
+            }
+            case "aot" -> {
+                if (!Files.exists(extracted.resolve(jar))) {
+                    return null;
+                }
+                command.addAll(List.of(java, "-Dspring.aot.enabled=true", "-jar", extracted.resolve(jar).toString()));
+            }
+            case "cds" -> {
+                if (!Files.exists(extracted.resolve("application.jsa"))) {
+                    return null;
+                }
+                command.addAll(List.of(java, "-XX:SharedArchiveFile=" + extracted.resolve("application.jsa"),
+                    "-Dspring.aot.enabled=true", "-jar", extracted.resolve(jar).toString()));
+            }
+            case "native" -> {
+                Path executable = target.resolve("online_ordering");
+                if (!Files.isExecutable(executable)) {
+                    return null;
+                }
+                command.add(executable.toString());
+            }
+            default -> throw new IllegalArgumentException("Unknown mode " + mode + "; use jvm, aot, cds or native");
+        }
+        return command;
+    }
+
+    // Startup, first booking and first tracking lookup, in milliseconds
+    private static double[] run(List<String> command, String profiles, String body) throws Exception {
+        int port;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+        List<String> arguments = new ArrayList<>(command);
+        // A fixed node id: deriving one from the host name costs a DNS lookup that would swamp the numbers
+        arguments.addAll(List.of("--server.port=" + port, "--spring.profiles.active=" + profiles,
+            "--parcels.tracking.node-id=1", "--spring.jpa.show-sql=false", "--logging.level.root=WARN"));
+        String base = "http://localhost:" + port;
+
+        long start = System.nanoTime();
+        Process process = new ProcessBuilder(arguments)
+            .redirectErrorStream(true)
+            .redirectOutput(new File(System.getProperty("java.io.tmpdir"), "startup-benchmark.log"))
+            .start();
+        try {
+            awaitHealthy(process, base + "/health", start);
+            double startup = millisSince(start);
+
+            long postStart = System.nanoTime();
+            HttpResponse<String> created = CLIENT.send(HttpRequest.newBuilder(URI.create(base + "/api/parcels"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build(), HttpResponse.BodyHandlers.ofString());
+            double firstPost = millisSince(postStart);
+            if (created.statusCode() != 201) {
+                throw new IllegalStateException("Booking failed with " + created.statusCode() + ": " + created.body());
+            }
+            JsonNode parcel = new ObjectMapper().readTree(created.body());
+
+            long trackStart = System.nanoTime();
+            HttpResponse<Void> tracked = CLIENT.send(HttpRequest.newBuilder(
+                URI.create(base + "/api/parcels/track/" + parcel.get("trackingNumber").asText())).GET().build(),
+                HttpResponse.BodyHandlers.discarding());
+            double firstTrack = millisSince(trackStart);
+            if (tracked.statusCode() != 200) {
+                throw new IllegalStateException("Tracking failed with " + tracked.statusCode());
+            }
+            return new double[] {startup, firstPost, firstTrack};
+        } finally {
+            process.destroy();
+            if (!process.waitFor(30, TimeUnit.SECONDS)) {
+                process.destroyForcibly();
+            }
+        }
+    }
+
+    private static void awaitHealthy(Process process, String url, long start) throws Exception {
+        HttpRequest health = HttpRequest.newBuilder(URI.create(url)).GET().build();
+        while (millisSince(start) < START_TIMEOUT.toMillis()) {
+            if (!process.isAlive()) {
+                throw new IllegalStateException("Application exited with " + process.exitValue()
+                    + "; see startup-benchmark.log in " + System.getProperty("java.io.tmpdir"));
+            }
+            try {
+                if (CLIENT.send(health, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                    return;
+                }
+            } catch (ConnectException e) {
+                // Not listening yet
+            }
+            Thread.sleep(5);
+        }
+        throw new IllegalStateException("Application not healthy after " + START_TIMEOUT);
+    }
+
+    private static double millisSince(long startNanos) {
+        return (System.nanoTime() - startNanos) / 1_000_000.0;
+    }
+
+    private static double median(double[] values) {
+        double[] sorted = values.clone();
+        Arrays.sort(sorted);
+        return sorted[sorted.length / 2];
+    }
+}
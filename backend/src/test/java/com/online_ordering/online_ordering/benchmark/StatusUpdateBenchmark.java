@@ -0,0 +1,99 @@
+package com.online_ordering.online_ordering.benchmark;
+
+import com.online_ordering.online_ordering.OnlineOrderingApplication;
+import com.online_ordering.online_ordering.entity.Parcel;
+import com.online_ordering.online_ordering.service.ParcelService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Status updates, each thread moving its own parcel back and forth, against the H2 dev profile with an artificial
+// per-statement delay standing in for a remote database. Reports the latency of one update, alone and with 16
+// concurrent callers sharing a 10-connection pool.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 6, time = 3)
+@Measurement(iterations = 5, time = 3)
+@Fork(1)
+@Threads(16)
+public class StatusUpdateBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class App {
+
+        @Param({"2"})
+        public long dbLatencyMillis;
+
+        ConfigurableApplicationContext context;
+
+        ParcelService parcelService;
+
+        final AtomicInteger nextSender = new AtomicInteger();
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            context = new SpringApplicationBuilder(OnlineOrderingApplication.class)
+                .profiles("dev")
+                .initializers(ctx -> ctx.getBeanFactory()
+                    .addBeanPostProcessor(new DatabaseLatencyInjector(dbLatencyMillis)))
+                // Command-line arguments, so they override application.properties
+                .run(
+                    "--server.port=0",
+                    "--spring.jpa.show-sql=false",
+                    "--logging.level.root=WARN",
+                    "--spring.datasource.hikari.maximum-pool-size=10");
+            parcelService = context.getBean(ParcelService.class);
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() {
+            context.close();
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class OwnParcel {
+
+        Long id;
+
+        boolean inTransit;
+
+        @Setup(Level.Trial)
+        public void setUp(App app) {
+            id = app.parcelService.createParcel(BenchmarkData.request(app.nextSender.getAndIncrement())).getId();
+        }
+    }
+
+    @Benchmark
+    @Threads(1)
+    public Parcel updateStatusAlone(App app, OwnParcel parcel) {
+        return toggle(app, parcel);
+    }
+
+    @Benchmark
+    public Parcel updateStatusConcurrently(App app, OwnParcel parcel) {
+        return toggle(app, parcel);
+    }
+
+    private static Parcel toggle(App app, OwnParcel parcel) {
+        parcel.inTransit = !parcel.inTransit;
+        return app.parcelService.updateParcelStatus(parcel.id,
+            parcel.inTransit ? Parcel.ParcelStatus.IN_TRANSIT : Parcel.ParcelStatus.OUT_FOR_DELIVERY, "Hub 7");
+    }
+}
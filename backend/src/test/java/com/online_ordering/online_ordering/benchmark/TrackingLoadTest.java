@@ -0,0 +1,158 @@
+package com.online_ordering.online_ordering.benchmark;
+
+import com.online_ordering.online_ordering.OnlineOrderingApplication;
+import com.online_ordering.online_ordering.service.ParcelService;
+import io.micrometer.core.instrument.LongTaskTimer;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Closed-loop load test of GET /api/parcels/track/{trackingNumber} with the tracking cache disabled and an
+// artificial per-statement database delay, so every request blocks on "remote" JDBC. Compare modes with:
+//   mvn -Pload-test -DskipTests test -Dloadtest.profiles=dev
+//   mvn -Pload-test -DskipTests test -Dloadtest.profiles=dev,virtual-threads   (needs Java 21+)
+// Arguments: profiles, concurrent clients, duration in seconds, database latency in milliseconds, connection pool
+// size. The pool size is set explicitly so both modes run against the same pool.
+public final class TrackingLoadTest {
+
+    private TrackingLoadTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        String profiles = args.length > 0 ? args[0] : "dev";
+        int clients = args.length > 1 ? Integer.parseInt(args[1]) : 1000;
+        int seconds = args.length > 2 ? Integer.parseInt(args[2]) : 20;
+        long dbLatencyMillis = args.length > 3 ? Long.parseLong(args[3]) : 20;
+        int poolSize = args.length > 4 ? Integer.parseInt(args[4]) : 10;
+
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(OnlineOrderingApplication.class)
+            .profiles(profiles.split(","))
+            .initializers(ctx -> ctx.getBeanFactory().addBeanPostProcessor(new DatabaseLatencyInjector(dbLatencyMillis)))
+            // Command-line arguments, so they override application.properties
+            .run(
+                "--server.port=0",
+                "--spring.jpa.show-sql=false",
+                "--logging.level.root=WARN",
+                "--parcels.tracking-cache.maximum-size=0",
+                "--spring.datasource.hikari.maximum-pool-size=" + poolSize,
+                "--spring.datasource.hikari.minimum-idle=" + poolSize);
+        try {
+            run(context, profiles, clients, seconds, dbLatencyMillis, poolSize);
+        } finally {
+            context.close();
+        }
+    }
+
+    private static void run(ConfigurableApplicationContext context, String profiles, int clients,
+                            int seconds, long dbLatencyMillis, int poolSize) throws Exception {
+        String baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port")
+            + "/api/parcels/track/";
+        ParcelService parcelService = context.getBean(ParcelService.class);
+        List<String> trackingNumbers = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            trackingNumbers.add(parcelService.createParcel(BenchmarkData.request(i)).getTrackingNumber());
+        }
+
+        MeterRegistry registry = context.getBean(MeterRegistry.class);
+        // Asynchronous closed loop: each client sends its next request when the previous one completes.
+        // A handful of client threads keeps the load generator from starving the server of CPU.
+        ExecutorService clientThreads = Executors.newFixedThreadPool(2);
+        HttpClient client = HttpClient.newBuilder()
+            .executor(clientThreads)
+            .connectTimeout(Duration.ofSeconds(10))
+            .build();
+        AtomicBoolean running = new AtomicBoolean(true);
+        AtomicLong completed = new AtomicLong();
+        AtomicLong failed = new AtomicLong();
+        long[] latencies = new long[1 << 22];
+        AtomicInteger latencyCount = new AtomicInteger();
+        CountDownLatch stopped = new CountDownLatch(clients);
+
+        for (int c = 0; c < clients; c++) {
+            new Runnable() {
+                private int next = ThreadLocalRandom.current().nextInt(trackingNumbers.size());
+
+                @Override
+                public void run() {
+                    if (!running.get()) {
+                        stopped.countDown();
+                        return;
+                    }
+                    HttpRequest request = HttpRequest.newBuilder(
+                        URI.create(baseUrl + trackingNumbers.get(next++ % trackingNumbers.size()))).GET().build();
+                    long start = System.nanoTime();
+                    client.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                        .whenComplete((response, error) -> {
+                            if (error == null && response.statusCode() == 200) {
+                                completed.incrementAndGet();
+                            } else {
+                                failed.incrementAndGet();
+                            }
+                            int slot = latencyCount.getAndIncrement();
+                            if (slot < latencies.length) {
+                                latencies[slot] = System.nanoTime() - start;
+                            }
+                            run();
+                        });
+                }
+            }.run();
+        }
+
+        // Let the JIT and the connection pool warm up before measuring
+        Thread.sleep(TimeUnit.SECONDS.toMillis(Math.max(1, seconds / 4)));
+        completed.set(0);
+        failed.set(0);
+        latencyCount.set(0);
+
+        // Sample how many requests the server is working on at once
+        long peakInFlight = 0;
+        long inFlightSum = 0;
+        int inFlightSamples = 0;
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+        while (System.nanoTime() < deadline) {
+            LongTaskTimer active = registry.find("http.server.requests.active").longTaskTimer();
+            long inFlight = active == null ? 0 : active.activeTasks();
+            peakInFlight = Math.max(peakInFlight, inFlight);
+            inFlightSum += inFlight;
+            inFlightSamples++;
+            Thread.sleep(10);
+        }
+        running.set(false);
+        stopped.await(60, TimeUnit.SECONDS);
+        clientThreads.shutdown();
+
+        long[] all = Arrays.copyOf(latencies, Math.min(latencyCount.get(), latencies.length));
+        Arrays.sort(all);
+        System.out.printf("%nprofiles=%s java=%d clients=%d duration=%ds db-latency=%dms pool=%d%n",
+            profiles, Runtime.version().feature(), clients, seconds, dbLatencyMillis, poolSize);
+        System.out.printf("throughput      %10.1f req/s (%d ok, %d failed)%n",
+            completed.get() / (double) seconds, completed.get(), failed.get());
+        System.out.printf("server in-flight  peak %d, mean %.1f%n",
+            peakInFlight, inFlightSamples == 0 ? 0.0 : inFlightSum / (double) inFlightSamples);
+        System.out.printf("latency         p50 %.1f ms, p99 %.1f ms%n", percentile(all, 0.50), percentile(all, 0.99));
+    }
+
+    private static double percentile(long[] sorted, double p) {
+        if (sorted.length == 0) {
+            return 0.0;
+        }
+        return sorted[(int) Math.min(sorted.length - 1, Math.round(p * (sorted.length - 1)))] / 1_000_000.0;
+    }
+}
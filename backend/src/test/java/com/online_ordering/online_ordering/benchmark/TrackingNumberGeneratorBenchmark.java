@@ -0,0 +1,60 @@
+package com.online_ordering.online_ordering.benchmark;
+
+import com.online_ordering.online_ordering.service.RandomTrackingNumberGenerator;
+import com.online_ordering.online_ordering.service.TimeSequenceTrackingNumberGenerator;
+import com.online_ordering.online_ordering.service.TrackingNumberGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+// Throughput of the legacy UUID-based scheme vs the time/node/sequence generator, single and contended
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TrackingNumberGeneratorBenchmark {
+
+    private TrackingNumberGenerator random;
+
+    private TrackingNumberGenerator timeSequence;
+
+    @Setup
+    public void setUp() {
+        random = new RandomTrackingNumberGenerator();
+        timeSequence = new TimeSequenceTrackingNumberGenerator(1);
+    }
+
+    @Benchmark
+    public String randomUuid() {
+        return random.next();
+    }
+
+    @Benchmark
+    public String timeSequence() {
+        return timeSequence.next();
+    }
+
+    @Benchmark
+    @Threads(8)
+    public String randomUuidContended() {
+        return random.next();
+    }
+
+    @Benchmark
+    @Threads(8)
+    public String timeSequenceContended() {
+        return timeSequence.next();
+    }
+}
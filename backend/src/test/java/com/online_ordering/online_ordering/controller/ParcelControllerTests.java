@@ -0,0 +1,528 @@
+package com.online_ordering.online_ordering.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.online_ordering.online_ordering.dto.ParcelRequest;
+import com.online_ordering.online_ordering.entity.Parcel;
+import com.online_ordering.online_ordering.repository.ParcelArchiveRepository;
+import com.online_ordering.online_ordering.repository.ParcelRepository;
+import com.online_ordering.online_ordering.service.ParcelArchiver;
+import com.online_ordering.online_ordering.service.ParcelSearchIndex;
+import com.online_ordering.online_ordering.service.ParcelService;
+import com.online_ordering.online_ordering.service.ParcelStatsCounters;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static com.online_ordering.online_ordering.ParcelFixtures.sampleRequest;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class ParcelControllerTests {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private ParcelService parcelService;
+
+	@Autowired
+	private ParcelRepository parcelRepository;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@Autowired
+	private ParcelStatsCounters statsCounters;
+
+	@Autowired
+	private ParcelArchiveRepository archiveRepository;
+
+	@Autowired
+	private ParcelArchiver parcelArchiver;
+
+	@Autowired
+	private ParcelSearchIndex searchIndex;
+
+	@Autowired
+	private DataSource dataSource;
+
+	@BeforeEach
+	void setUp() {
+		parcelRepository.deleteAll();
+		archiveRepository.deleteAll();
+	}
+
+	@Test
+	void getAllParcelsWalksKeysetPages() throws Exception {
+		for (int i = 0; i < 5; i++) {
+			parcelService.createParcel(sampleRequest("sender" + i + "@example.com"));
+		}
+
+		String body = mockMvc.perform(get("/api/parcels").param("size", "2"))
+			.andExpect(status().isOk())
+			.andExpect(jsonPath("$.items.length()").value(2))
+			.andExpect(jsonPath("$.hasMore").value(true))
+			.andReturn().getResponse().getContentAsString();
+		String cursor = com.jayway.jsonpath.JsonPath.read(body, "$.nextCursor");
+
+		body = mockMvc.perform(get("/api/parcels").param("size", "2").param("cursor", cursor))
+			.andExpect(status().isOk())
+			.andExpect(jsonPath("$.items.length()").value(2))
+			.andReturn().getResponse().getContentAsString();
+		cursor = com.jayway.jsonpath.JsonPath.read(body, "$.nextCursor");
+
+		mockMvc.perform(get("/api/parcels").param("size", "2").param("cursor", cursor))
+			.andExpect(status().isOk())
+			.andExpect(jsonPath("$.items.length()").value(1))
+			.andExpect(jsonPath("$.nextCursor").doesNotExist());
+	}
+
+	@Test
+	void getAllParcelsRejectsMalformedCursor() throws Exception {
+		mockMvc.perform(get("/api/parcels").param("cursor", "not-a-cursor"))
+			.andExpect(status().isBadRequest());
+	}
+
+	@Test
+	void streamAllParcelsWritesOneJsonObjectPerLine() throws Exception {
+		for (int i = 0; i < 3; i++) {
+			parcelService.createParcel(sampleRequest("stream" + i + "@example.com"));
+		}
+
+		MvcResult started = mockMvc.perform(get("/api/parcels").accept(MediaType.APPLICATION_NDJSON))
+			.andExpect(request().asyncStarted())
+			.andReturn();
+		// parcels.export.timeout=0: no limit for this request only
+		assertThat(started.getRequest().getAsyncContext().getTimeout()).isEqualTo(-1);
+		String body = mockMvc.perform(asyncDispatch(started))
+			.andExpect(status().isOk())
+			.andExpect(header().string("Content-Type", MediaType.APPLICATION_NDJSON_VALUE))
+			.andReturn().getResponse().getContentAsString();
+
+		String[] lines = body.strip().split("\n");
+		assertThat(lines).hasSize(3);
+		assertThat(lines).allSatisfy(line -> assertThat(line).startsWith("{").contains("trackingNumber"));
+	}
+
+	@Test
+	void trackParcelNeverServesStaleStatusAfterUpdate() throws Exception {
+		Parcel parcel = parcelService.createParcel(sampleRequest("cache@example.com"));
+		String url = "/api/parcels/track/" + parcel.getTrackingNumber();
+
+		mockMvc.perform(get(url)).andExpect(jsonPath("$.status").value("PENDING"));
+		mockMvc.perform(get(url)).andExpect(jsonPath("$.status").value("PENDING"));
+
+		parcelService.updateParcelStatus(parcel.getId(), Parcel.ParcelStatus.IN_TRANSIT);
+		mockMvc.perform(get(url)).andExpect(jsonPath("$.status").value("IN_TRANSIT"));
+
+		parcelService.deleteParcel(parcel.getId());
+		mockMvc.perform(get(url)).andExpect(status().isNotFound());
+	}
+
+	@Test
+	void userParcelsReturnSummariesWithoutDuplicates() throws Exception {
+		parcelService.createParcel(sampleRequest("user@example.com"));
+		ParcelRequest toSelf = sampleRequest("user@example.com");
+		toSelf.setRecipientEmail("user@example.com");
+		parcelService.createParcel(toSelf);
+		parcelService.createParcel(sampleRequest("other@example.com"));
+
+		mockMvc.perform(get("/api/parcels/user/user@example.com"))
+			.andExpect(status().isOk())
+			.andExpect(jsonPath("$.length()").value(2))
+			.andExpect(jsonPath("$[0].trackingNumber").isNotEmpty())
+			.andExpect(jsonPath("$[0].shippingCost").isNumber())
+			.andExpect(jsonPath("$[0].senderAddress").doesNotExist())
+			.andExpect(jsonPath("$[0].description").doesNotExist());
+
+		mockMvc.perform(get("/api/parcels/user/jane@example.com"))
+			.andExpect(jsonPath("$.length()").value(2));
+	}
+
+	@Test
+	void bulkCreateReportsPerItemResults() throws Exception {
+		ParcelRequest invalid = sampleRequest("not-an-email");
+		List<ParcelRequest> requests = List.of(
+			sampleRequest("bulk0@example.com"), invalid, sampleRequest("bulk2@example.com"));
+
+		mockMvc.perform(post("/api/parcels/bulk")
+				.contentType(MediaType.APPLICATION_JSON)
+				.content(objectMapper.writeValueAsString(requests)))
+			.andExpect(status().isOk())
+			.andExpect(jsonPath("$.total").value(3))
+			.andExpect(jsonPath("$.succeeded").value(2))
+			.andExpect(jsonPath("$.results[1].success").value(false))
+			.andExpect(jsonPath("$.results[2].trackingNumber").isNotEmpty());
+		assertThat(parcelRepository.count()).isEqualTo(2);
+	}
+
+	@Test
+	void bulkCreateFromNdjsonIsolatesMalformedLines() throws Exception {
+		String ndjson = objectMapper.writeValueAsString(sampleRequest("nd0@example.com")) + "\n"
+			+ "{not json\n"
+			+ objectMapper.writeValueAsString(sampleRequest("nd2@example.com")) + "\n";
+
+		mockMvc.perform(post("/api/parcels/bulk")
+				.contentType(MediaType.APPLICATION_NDJSON)
+				.content(ndjson))
+			.andExpect(status().isOk())
+			.andExpect(jsonPath("$.succeeded").value(2))
+			.andExpect(jsonPath("$.failed").value(1))
+			.andExpect(jsonPath("$.results[1].index").value(1));
+	}
+
+	@Test
+	void statsFollowWritesAndReconcileWithDatabase() throws Exception {
+		statsCounters.reconcile();
+		Parcel first = parcelService.createParcel(sampleRequest("stats0@example.com"));
+		Parcel second = parcelService.createParcel(sampleRequest("stats1@example.com"));
+		parcelService.updateParcelStatus(first.getId(), Parcel.ParcelStatus.IN_TRANSIT);
+		parcelService.deleteParcel(second.getId());
+
+		mockMvc.perform(get("/api/parcels/stats"))
+			.andExpect(status().isOk())
+			.andExpect(jsonPath("$.total").value(1))
+			.andExpect(jsonPath("$.byStatus.IN_TRANSIT").value(1))
+			.andExpect(jsonPath("$.byStatus.PENDING").value(0))
+			.andExpect(jsonPath("$.byDeliveryType.EXPRESS").value(1));
+
+		// Rows removed behind the service's back are only picked up by reconciliation
+		parcelRepository.deleteAll();
+		mockMvc.perform(get("/api/parcels/stats")).andExpect(jsonPath("$.total").value(1));
+		statsCounters.reconcile();
+		mockMvc.perform(get("/api/parcels/stats")).andExpect(jsonPath("$.total").value(0));
+	}
+
+	@Test
+	void trackEventsPushStatusChangesToSubscribers() throws Exception {
+		Parcel parcel = parcelService.createParcel(sampleRequest("sse@example.com"));
+		MvcResult tracking = mockMvc.perform(get("/api/parcels/track/" + parcel.getTrackingNumber() + "/events"))
+			.andExpect(request().asyncStarted())
+			.andReturn();
+		MvcResult user = mockMvc.perform(get("/api/parcels/user/sse@example.com/events"))
+			.andExpect(request().asyncStarted())
+			.andReturn();
+
+		parcelService.updateParcelStatus(parcel.getId(), Parcel.ParcelStatus.PICKED_UP);
+
+		for (MvcResult result : List.of(tracking, user)) {
+			String body = awaitContent(result, "PICKED_UP");
+			assertThat(body).contains("event:status").contains("\"previousStatus\":\"PENDING\"");
+			assertThat(body).doesNotContain("sse@example.com");
+		}
+		mockMvc.perform(get("/api/parcels/track/TRKUNKNOWN/events")).andExpect(status().isNotFound());
+	}
+
+	@Test
+	void openEventStreamsHoldNoDatabaseConnection() throws Exception {
+		HikariPoolMXBean pool = dataSource.unwrap(HikariDataSource.class).getHikariPoolMXBean();
+		for (int i = 0; i < 3; i++) {
+			// A new parcel each time, so the existence check misses the tracking cache and queries the database
+			Parcel parcel = parcelService.createParcel(sampleRequest("sse-pool" + i + "@example.com"));
+			mockMvc.perform(get("/api/parcels/track/" + parcel.getTrackingNumber() + "/events"))
+				.andExpect(request().asyncStarted());
+			assertThat(pool.getActiveConnections()).isZero();
+		}
+	}
+
+	@Test
+	void historyRecordsEveryStatusChangeInOrder() throws Exception {
+		Parcel parcel = parcelService.createParcel(sampleRequest("history@example.com"));
+		for (String change : List.of(
+				"{\"status\":\"PICKED_UP\",\"location\":\"Depot A\"}",
+				"{\"status\":\"IN_TRANSIT\",\"location\":\"Hub B\"}")) {
+			mockMvc.perform(patch("/api/parcels/" + parcel.getId() + "/status")
+					.contentType(MediaType.APPLICATION_JSON)
+					.content(change))
+				.andExpect(status().isOk());
+		}
+
+		mockMvc.perform(get("/api/parcels/track/" + parcel.getTrackingNumber() + "/history"))
+			.andExpect(status().isOk())
+			.andExpect(jsonPath("$.length()").value(3))
+			.andExpect(jsonPath("$[0].status").value("PENDING"))
+			.andExpect(jsonPath("$[1].location").value("Depot A"))
+			.andExpect(jsonPath("$[2].status").value("IN_TRANSIT"));
+		mockMvc.perform(get("/api/parcels/" + parcel.getId() + "/history"))
+			.andExpect(jsonPath("$[2].location").value("Hub B"));
+		mockMvc.perform(get("/api/parcels/0/history")).andExpect(status().isNotFound());
+	}
+
+	@Test
+	void bulkStatusAppliesAllowedTransitionsPerItem() throws Exception {
+		Parcel inTransit = parcelService.createParcel(sampleRequest("hub0@example.com"));
+		parcelService.updateParcelStatus(inTransit.getId(), Parcel.ParcelStatus.IN_TRANSIT);
+		Parcel outForDelivery = parcelService.createParcel(sampleRequest("hub1@example.com"));
+		parcelService.updateParcelStatus(outForDelivery.getId(), Parcel.ParcelStatus.OUT_FOR_DELIVERY);
+		Parcel pending = parcelService.createParcel(sampleRequest("hub2@example.com"));
+
+		String body = "{\"status\":\"OUT_FOR_DELIVERY\",\"location\":\"Hub C\",\"trackingNumbers\":["
+			+ "\"" + inTransit.getTrackingNumber() + "\",\"" + outForDelivery.getTrackingNumber() + "\","
+			+ "\"" + pending.getTrackingNumber() + "\",\"TRKUNKNOWN\"]}";
+		mockMvc.perform(patch("/api/parcels/bulk/status")
+				.contentType(MediaType.APPLICATION_JSON)
+				.content(body))
+			.andExpect(status().isOk())
+			.andExpect(jsonPath("$.succeeded").value(2))
+			.andExpect(jsonPath("$.results[0].previousStatus").value("IN_TRANSIT"))
+			.andExpect(jsonPath("$.results[1].previousStatus").value("OUT_FOR_DELIVERY"))
+			.andExpect(jsonPath("$.results[2].success").value(false))
+			.andExpect(jsonPath("$.results[2].previousStatus").value("PENDING"))
+			.andExpect(jsonPath("$.results[3].success").value(false));
+
+		mockMvc.perform(get("/api/parcels/track/" + inTransit.getTrackingNumber()))
+			.andExpect(jsonPath("$.status").value("OUT_FOR_DELIVERY"));
+
+		mockMvc.perform(patch("/api/parcels/bulk/status")
+				.contentType(MediaType.APPLICATION_JSON)
+				.content("{\"status\":\"DELIVERED\",\"ids\":[" + inTransit.getId() + "]}"))
+			.andExpect(jsonPath("$.succeeded").value(1));
+		assertThat(parcelRepository.findById(inTransit.getId()).orElseThrow().getActualDeliveryDate()).isNotNull();
+		mockMvc.perform(get("/api/parcels/" + inTransit.getId() + "/history"))
+			.andExpect(jsonPath("$.length()").value(4))
+			.andExpect(jsonPath("$[2].location").value("Hub C"));
+	}
+
+	@Test
+	void updateWithStaleIfMatchIsRejected() throws Exception {
+		Parcel parcel = parcelService.createParcel(sampleRequest("etag@example.com"));
+		String etag = mockMvc.perform(get("/api/parcels/" + parcel.getId()))
+			.andExpect(header().string("ETag", "\"0\""))
+			.andReturn().getResponse().getHeader("ETag");
+		String body = objectMapper.writeValueAsString(sampleRequest("etag@example.com"));
+
+		mockMvc.perform(put("/api/parcels/" + parcel.getId())
+				.header("If-Match", etag)
+				.contentType(MediaType.APPLICATION_JSON)
+				.content(body))
+			.andExpect(status().isOk())
+			.andExpect(header().string("ETag", "\"1\""));
+		mockMvc.perform(put("/api/parcels/" + parcel.getId())
+				.header("If-Match", etag)
+				.contentType(MediaType.APPLICATION_JSON)
+				.content(body))
+			.andExpect(status().isPreconditionFailed());
+	}
+
+	@Test
+	void concurrentStatusUpdatesAreAllApplied() throws Exception {
+		Parcel parcel = parcelService.createParcel(sampleRequest("race@example.com"));
+		// Distinct statuses, so every write is a real change whatever order they land in
+		List<Parcel.ParcelStatus> statuses = List.of(Parcel.ParcelStatus.CONFIRMED, Parcel.ParcelStatus.PICKED_UP,
+			Parcel.ParcelStatus.IN_TRANSIT, Parcel.ParcelStatus.OUT_FOR_DELIVERY);
+		int writers = statuses.size();
+		ExecutorService pool = Executors.newFixedThreadPool(writers);
+		try {
+			List<Future<Parcel>> updates = new ArrayList<>();
+			for (Parcel.ParcelStatus status : statuses) {
+				updates.add(pool.submit(() -> parcelService.updateParcelStatus(parcel.getId(), status)));
+			}
+			for (Future<Parcel> update : updates) {
+				update.get(10, TimeUnit.SECONDS);
+			}
+		} finally {
+			pool.shutdown();
+		}
+		// Every write landed on its own version; none silently replaced another
+		Parcel stale = parcelRepository.findById(parcel.getId()).orElseThrow();
+		assertThat(stale.getVersion()).isEqualTo((long) writers);
+
+		parcelService.updateParcelStatus(parcel.getId(), Parcel.ParcelStatus.DELIVERED);
+		stale.setDescription("stale write");
+		assertThatThrownBy(() -> parcelRepository.save(stale))
+			.isInstanceOf(ObjectOptimisticLockingFailureException.class);
+	}
+
+	@Test
+	void mergePatchChangesOnlySuppliedFields() throws Exception {
+		Parcel parcel = parcelService.createParcel(sampleRequest("patch@example.com"));
+		String url = "/api/parcels/" + parcel.getId();
+		// As stored, i.e. at the database's timestamp precision
+		LocalDateTime eta = parcelRepository.findById(parcel.getId()).orElseThrow().getEstimatedDeliveryDate();
+
+		mockMvc.perform(patch(url)
+				.contentType("application/merge-patch+json")
+				.content("{\"senderPhone\":\"+1555000111\",\"description\":null}"))
+			.andExpect(status().isOk())
+			.andExpect(header().string("ETag", "\"1\""))
+			.andExpect(jsonPath("$.senderPhone").value("+1555000111"))
+			.andExpect(jsonPath("$.description").doesNotExist())
+			.andExpect(jsonPath("$.senderName").value("John Doe"))
+			.andExpect(jsonPath("$.shippingCost").value(parcel.getShippingCost()))
+			// Formatted by Jackson, which drops trailing zeros of the fraction that LocalDateTime.toString() keeps
+			.andExpect(jsonPath("$.estimatedDeliveryDate").value(objectMapper.convertValue(eta, String.class)));
+
+		mockMvc.perform(patch(url)
+				.contentType("application/merge-patch+json")
+				.content("{\"weight\":10.0}"))
+			.andExpect(status().isOk())
+			.andExpect(jsonPath("$.shippingCost").value((5.0 + 10.0 * 2.0) * 1.5));
+
+		mockMvc.perform(patch(url)
+				.contentType("application/merge-patch+json")
+				.content("{\"senderEmail\":null}"))
+			.andExpect(status().isBadRequest());
+		mockMvc.perform(patch(url)
+				.contentType("application/merge-patch+json")
+				.content("{\"status\":\"DELIVERED\"}"))
+			.andExpect(status().isBadRequest());
+	}
+
+	@Test
+	void searchMatchesWordPrefixesAndPhoneEndings() throws Exception {
+		// setUp clears the table behind the index's back
+		parcelService.rebuildSearchIndex();
+		Parcel jane = parcelService.createParcel(sampleRequest("search@example.com"));
+		ParcelRequest request = sampleRequest("search@example.com");
+		request.setRecipientName("Maria Gonzalez");
+		request.setRecipientPhone("+44 20 7946 0958");
+		request.setDescription("Spare parts");
+		Parcel maria = parcelService.createParcel(request);
+
+		mockMvc.perform(get("/api/parcels/search").param("q", "smi"))
+			.andExpect(status().isOk())
+			.andExpect(jsonPath("$.total").value(1))
+			.andExpect(jsonPath("$.items[0].id").value(jane.getId()));
+		mockMvc.perform(get("/api/parcels/search").param("q", "JOHN do"))
+			.andExpect(jsonPath("$.total").value(2))
+			.andExpect(jsonPath("$.items[0].id").value(maria.getId()))
+			.andExpect(jsonPath("$.items[1].id").value(jane.getId()));
+		mockMvc.perform(get("/api/parcels/search").param("q", "gonz spare"))
+			.andExpect(jsonPath("$.items[0].id").value(maria.getId()));
+		mockMvc.perform(get("/api/parcels/search").param("q", "0958"))
+			.andExpect(jsonPath("$.items[0].id").value(maria.getId()));
+		mockMvc.perform(get("/api/parcels/search").param("q", "442079"))
+			.andExpect(jsonPath("$.items[0].id").value(maria.getId()));
+		mockMvc.perform(get("/api/parcels/search").param("q", "john").param("limit", "1"))
+			.andExpect(jsonPath("$.total").value(2))
+			.andExpect(jsonPath("$.items.length()").value(1));
+		mockMvc.perform(get("/api/parcels/search").param("q", "a"))
+			.andExpect(status().isBadRequest());
+
+		mockMvc.perform(patch("/api/parcels/" + maria.getId())
+				.contentType("application/merge-patch+json")
+				.content("{\"recipientName\":\"Maria Lopez\"}"))
+			.andExpect(status().isOk());
+		parcelService.deleteParcel(jane.getId());
+		mockMvc.perform(get("/api/parcels/search").param("q", "gonzalez"))
+			.andExpect(jsonPath("$.total").value(0));
+		mockMvc.perform(get("/api/parcels/search").param("q", "smith"))
+			.andExpect(jsonPath("$.total").value(0));
+
+		mockMvc.perform(post("/api/parcels/search/rebuild"))
+			.andExpect(status().isOk())
+			.andExpect(jsonPath("$.documents").value(1));
+		mockMvc.perform(get("/api/parcels/search").param("q", "lopez"))
+			.andExpect(jsonPath("$.items[0].id").value(maria.getId()));
+
+		// Edited by another instance, behind this one's index: found once the periodic catch-up has run
+		Parcel elsewhere = parcelRepository.findById(maria.getId()).orElseThrow();
+		elsewhere.setDescription("Vintage gramophone");
+		parcelRepository.save(elsewhere);
+		mockMvc.perform(get("/api/parcels/search").param("q", "gramophone"))
+			.andExpect(jsonPath("$.total").value(0));
+		assertThat(searchIndex.catchUp()).isGreaterThanOrEqualTo(1);
+		mockMvc.perform(get("/api/parcels/search").param("q", "gramophone"))
+			.andExpect(jsonPath("$.items[0].id").value(maria.getId()));
+	}
+
+	@Test
+	void archivedParcelsAreStillTrackable() throws Exception {
+		Parcel delivered = parcelService.createParcel(sampleRequest("archive@example.com"));
+		Parcel active = parcelService.createParcel(sampleRequest("archive@example.com"));
+		parcelService.updateParcelStatus(delivered.getId(), Parcel.ParcelStatus.DELIVERED);
+		parcelService.updateParcelStatus(active.getId(), Parcel.ParcelStatus.IN_TRANSIT);
+
+		statsCounters.reconcile();
+		assertThat(parcelArchiver.archive(Duration.ZERO)).isEqualTo(1);
+		assertThat(parcelRepository.findById(delivered.getId())).isEmpty();
+		assertThat(parcelRepository.findById(active.getId())).isPresent();
+		assertThat(parcelArchiver.archive(Duration.ZERO)).isZero();
+
+		// Still counted, both by the live counters and by reconciliation
+		mockMvc.perform(get("/api/parcels/stats"))
+			.andExpect(jsonPath("$.total").value(2))
+			.andExpect(jsonPath("$.byStatus.DELIVERED").value(1));
+		statsCounters.reconcile();
+		mockMvc.perform(get("/api/parcels/stats"))
+			.andExpect(jsonPath("$.total").value(2))
+			.andExpect(jsonPath("$.byStatus.DELIVERED").value(1));
+
+		mockMvc.perform(get("/api/parcels/track/" + delivered.getTrackingNumber()))
+			.andExpect(status().isOk())
+			.andExpect(jsonPath("$.id").value(delivered.getId()))
+			.andExpect(jsonPath("$.status").value("DELIVERED"));
+		mockMvc.perform(get("/api/parcels/track/" + delivered.getTrackingNumber() + "/history"))
+			.andExpect(status().isOk())
+			.andExpect(jsonPath("$.length()").value(2));
+		mockMvc.perform(get("/api/parcels/user/archive@example.com"))
+			.andExpect(jsonPath("$.length()").value(2));
+		mockMvc.perform(get("/api/parcels/status/DELIVERED"))
+			.andExpect(jsonPath("$.length()").value(0));
+	}
+
+	@Test
+	void listsNegotiateCborAndSmile() throws Exception {
+		Parcel parcel = parcelService.createParcel(sampleRequest("binary@example.com"));
+
+		byte[] cbor = mockMvc.perform(get("/api/parcels/sender/binary@example.com").accept("application/cbor"))
+			.andExpect(status().isOk())
+			.andExpect(header().string("Content-Type", "application/cbor"))
+			.andReturn().getResponse().getContentAsByteArray();
+		JsonNode fromCbor = new ObjectMapper(new CBORFactory()).readTree(cbor);
+		assertThat(fromCbor.get(0).get("trackingNumber").asText()).isEqualTo(parcel.getTrackingNumber());
+		assertThat(fromCbor.get(0).get("createdAt").isTextual()).isTrue();
+
+		byte[] smile = mockMvc.perform(get("/api/parcels/sender/binary@example.com").accept("application/x-jackson-smile"))
+			.andExpect(status().isOk())
+			.andReturn().getResponse().getContentAsByteArray();
+		JsonNode fromSmile = new ObjectMapper(new SmileFactory()).readTree(smile);
+		assertThat(fromSmile.get(0).get("id").asLong()).isEqualTo(parcel.getId());
+
+		mockMvc.perform(get("/api/parcels/sender/binary@example.com"))
+			.andExpect(header().string("Content-Type", MediaType.APPLICATION_JSON_VALUE))
+			.andExpect(jsonPath("$[0].id").value(parcel.getId()));
+	}
+
+	private static String awaitContent(MvcResult result, String expected) throws Exception {
+		long deadline = System.currentTimeMillis() + 5000;
+		String body = result.getResponse().getContentAsString();
+		while (!body.contains(expected) && System.currentTimeMillis() < deadline) {
+			Thread.sleep(20);
+			body = result.getResponse().getContentAsString();
+		}
+		return body;
+	}
+}
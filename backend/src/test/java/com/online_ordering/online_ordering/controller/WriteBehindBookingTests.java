@@ -0,0 +1,91 @@
+package com.online_ordering.online_ordering.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.online_ordering.online_ordering.dto.ParcelRequest;
+import com.online_ordering.online_ordering.entity.Parcel;
+import com.online_ordering.online_ordering.repository.ParcelRepository;
+import com.online_ordering.online_ordering.service.WriteBehindBookingService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+	"parcels.booking.mode=write-behind",
+	"parcels.booking.write-behind.directory=target/write-behind-test"
+})
+@AutoConfigureMockMvc
+public class WriteBehindBookingTests {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private ParcelRepository parcelRepository;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@Autowired
+	private WriteBehindBookingService writeBehindBooking;
+
+	@Test
+	void bookingIsAcceptedTrackableAndThenPersisted() throws Exception {
+		ParcelRequest request = new ParcelRequest();
+		request.setSenderName("Sender");
+		request.setSenderEmail("write-behind@example.com");
+		request.setSenderPhone("+1234567890");
+		request.setSenderAddress("1 Sender St");
+		request.setRecipientName("Recipient");
+		request.setRecipientEmail("recipient@example.com");
+		request.setRecipientPhone("+0987654321");
+		request.setRecipientAddress("2 Recipient Ave");
+		request.setWeight(2.0);
+		request.setLength(10.0);
+		request.setWidth(10.0);
+		request.setHeight(10.0);
+		request.setParcelType(Parcel.ParcelType.PACKAGE);
+		request.setDeliveryType(Parcel.DeliveryType.STANDARD);
+
+		String body = mockMvc.perform(post("/api/parcels")
+				.contentType(MediaType.APPLICATION_JSON)
+				.content(objectMapper.writeValueAsString(request)))
+			.andExpect(status().isAccepted())
+			.andExpect(header().exists("Location"))
+			.andReturn().getResponse().getContentAsString();
+		String trackingNumber = com.jayway.jsonpath.JsonPath.read(body, "$.trackingNumber");
+
+		// Read-your-writes whether or not the drainer has caught up yet
+		mockMvc.perform(get("/api/parcels/track/" + trackingNumber))
+			.andExpect(status().isOk())
+			.andExpect(jsonPath("$.senderEmail").value("write-behind@example.com"));
+
+		assertThat(writeBehindBooking.awaitDrained(Duration.ofSeconds(10))).isTrue();
+		Parcel stored = parcelRepository.findByTrackingNumber(trackingNumber).orElseThrow();
+		assertThat(stored.getShippingCost()).isEqualTo(objectMapper.readTree(body).get("shippingCost").asDouble());
+		mockMvc.perform(get("/api/parcels/track/" + trackingNumber))
+			.andExpect(status().isOk())
+			.andExpect(jsonPath("$.id").value(stored.getId()));
+
+		// Fully drained logs are emptied
+		Path log = Path.of("target/write-behind-test/bookings.log");
+		long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+		while (Files.size(log) > 0 && System.nanoTime() < deadline) {
+			Thread.sleep(20);
+		}
+		assertThat(Files.size(log)).isZero();
+	}
+}
@@ -0,0 +1,120 @@
+package com.online_ordering.online_ordering.repository;
+
+import com.online_ordering.online_ordering.entity.Parcel;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Runs every ParcelRepository (and status history / archive) finder, captures the SQL Hibernate sent and checks that
+// the database plans it through the expected index. Subclasses bind the datasource and dialect.
+abstract class AbstractQueryPlanTests {
+
+	static final String INSPECTOR_PROPERTY =
+		"spring.jpa.properties.hibernate.session_factory.statement_inspector="
+			+ "com.online_ordering.online_ordering.repository.RecordingStatementInspector";
+
+	@Autowired
+	protected ParcelRepository parcelRepository;
+
+	@Autowired
+	protected ParcelStatusEntryRepository statusEntryRepository;
+
+	@Autowired
+	protected ParcelArchiveRepository archiveRepository;
+
+	@Autowired
+	protected JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	protected PlatformTransactionManager transactionManager;
+
+	// Returns the plan text for sql with every placeholder bound to the given value
+	protected abstract String explain(String sql, Object... args);
+
+	@Test
+	void findByTrackingNumberUsesUniqueIndex() {
+		parcelRepository.findByTrackingNumber("TRK0000000000000");
+		// The unique constraint's index name is generated by the database, so only rule out a scan
+		assertNoFullScan(explain(RecordingStatementInspector.lastSql(), "TRK0000000000000"));
+	}
+
+	@Test
+	void findSummariesBySenderEmailUsesIndex() {
+		parcelRepository.findSummariesBySenderEmail("a@example.com");
+		assertPlanUses(explain(RecordingStatementInspector.lastSql(), "a@example.com"), "idx_parcels_sender_email");
+	}
+
+	@Test
+	void findSummariesByRecipientEmailUsesIndex() {
+		parcelRepository.findSummariesByRecipientEmail("a@example.com");
+		assertPlanUses(explain(RecordingStatementInspector.lastSql(), "a@example.com"), "idx_parcels_recipient_email");
+	}
+
+	@Test
+	void findSummariesByStatusUsesIndex() {
+		parcelRepository.findSummariesByStatus(Parcel.ParcelStatus.IN_TRANSIT);
+		assertPlanUses(explain(RecordingStatementInspector.lastSql(), "IN_TRANSIT"), "idx_parcels_status_created_at");
+	}
+
+	@Test
+	void findSummariesByUserEmailUsesBothEmailIndexes() {
+		parcelRepository.findSummariesByUserEmail("a@example.com");
+		String plan = explain(RecordingStatementInspector.lastSql(), "a@example.com", "a@example.com", "a@example.com");
+		assertPlanUses(plan, "idx_parcels_sender_email");
+		assertPlanUses(plan, "idx_parcels_recipient_email");
+	}
+
+	@Test
+	void archivedUserEmailLookupUsesArchiveEmailIndexes() {
+		archiveRepository.findSummariesByUserEmail("a@example.com");
+		String plan = explain(RecordingStatementInspector.lastSql(), "a@example.com", "a@example.com", "a@example.com");
+		assertPlanUses(plan, "idx_parcels_archive_sender_email");
+		assertPlanUses(plan, "idx_parcels_archive_recipient_email");
+	}
+
+	@Test
+	void searchCatchUpUsesUpdatedAtIndex() {
+		LocalDateTime since = LocalDateTime.now();
+		new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+			try (Stream<Object[]> rows = parcelRepository.streamSearchFieldsUpdatedSince(since)) {
+				rows.forEach(row -> { });
+			}
+		});
+		assertPlanUses(explain(RecordingStatementInspector.lastSql(), since), "idx_parcels_updated_at");
+	}
+
+	@Test
+	void statusHistoryTimelineUsesParcelIndex() {
+		statusEntryRepository.findByParcelIdOrderByOccurredAtAscIdAsc(1L);
+		assertPlanUses(explain(RecordingStatementInspector.lastSql(), 1L), "idx_parcel_status_events_parcel_occurred_at");
+	}
+
+	private static void assertPlanUses(String plan, String indexName) {
+		assertNoFullScan(plan);
+		assertThat(plan.toLowerCase(Locale.ROOT))
+			.as("query plan:%n%s", plan)
+			.contains(indexName.toLowerCase(Locale.ROOT));
+	}
+
+	// "tableScan" is H2's marker, "Seq Scan" is Postgres'
+	private static void assertNoFullScan(String plan) {
+		assertThat(plan.toLowerCase(Locale.ROOT))
+			.as("query plan:%n%s", plan)
+			.doesNotContain("tablescan")
+			.doesNotContain("seq scan");
+	}
+
+	protected static String join(List<String> lines) {
+		return String.join("\n", lines);
+	}
+
+}
@@ -0,0 +1,14 @@
+package com.online_ordering.online_ordering.repository;
+
+import org.springframework.boot.test.context.SpringBootTest;
+
+// EXPLAIN against the in-memory H2 database of the dev profile
+@SpringBootTest(properties = AbstractQueryPlanTests.INSPECTOR_PROPERTY)
+class H2QueryPlanTests extends AbstractQueryPlanTests {
+
+	@Override
+	protected String explain(String sql, Object... args) {
+		return join(jdbcTemplate.queryForList("EXPLAIN " + sql, String.class, args));
+	}
+
+}
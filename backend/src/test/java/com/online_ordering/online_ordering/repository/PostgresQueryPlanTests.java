@@ -0,0 +1,138 @@
+package com.online_ordering.online_ordering.repository;
+
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.NestedTestConfiguration;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// EXPLAIN against a real Postgres; set PARCELS_EXPLAIN_PG_URL (plus _USER/_PASSWORD) to run it, e.g.
+// PARCELS_EXPLAIN_PG_URL=jdbc:postgresql://localhost:5432/parcels_test mvn test
+@EnabledIfEnvironmentVariable(named = "PARCELS_EXPLAIN_PG_URL", matches = ".+")
+@SpringBootTest(properties = {
+	AbstractQueryPlanTests.INSPECTOR_PROPERTY,
+	"spring.datasource.url=${PARCELS_EXPLAIN_PG_URL}",
+	"spring.datasource.username=${PARCELS_EXPLAIN_PG_USER:postgres}",
+	"spring.datasource.password=${PARCELS_EXPLAIN_PG_PASSWORD:postgres}",
+	"spring.datasource.driver-class-name=org.postgresql.Driver",
+	"spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.PostgreSQLDialect",
+	"spring.jpa.hibernate.ddl-auto=create-drop"
+})
+class PostgresQueryPlanTests extends AbstractQueryPlanTests {
+
+	// An empty table always plans as a sequential scan, so ask whether an index path exists at all
+	@Override
+	protected String explain(String sql, Object... args) {
+		return explain(transactionManager, jdbcTemplate, sql, args);
+	}
+
+	private static String explain(PlatformTransactionManager transactionManager, JdbcTemplate jdbcTemplate,
+								  String sql, Object... args) {
+		return new TransactionTemplate(transactionManager).execute(status -> {
+			jdbcTemplate.execute("SET LOCAL enable_seqscan = off");
+			return join(jdbcTemplate.queryForList("EXPLAIN " + sql, String.class, args));
+		});
+	}
+
+	// The "partitioned" profile's table, in a schema of its own so it does not meet the plain one above. Schema
+	// update as in production: create-drop would replace the partitioned table the profile's script creates.
+	@Nested
+	@NestedTestConfiguration(NestedTestConfiguration.EnclosingConfiguration.OVERRIDE)
+	@SpringBootTest(properties = {
+		AbstractQueryPlanTests.INSPECTOR_PROPERTY,
+		"spring.profiles.active=partitioned",
+		"spring.datasource.url=${PARCELS_EXPLAIN_PG_URL}",
+		"spring.datasource.username=${PARCELS_EXPLAIN_PG_USER:postgres}",
+		"spring.datasource.password=${PARCELS_EXPLAIN_PG_PASSWORD:postgres}",
+		"spring.datasource.driver-class-name=org.postgresql.Driver",
+		"spring.datasource.hikari.schema=parcels_partitioned",
+		"spring.datasource.hikari.connection-init-sql=CREATE SCHEMA IF NOT EXISTS parcels_partitioned",
+		"spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.PostgreSQLDialect",
+		"spring.jpa.hibernate.ddl-auto=update"
+	})
+	class Partitioned {
+
+		@Autowired
+		private ParcelRepository parcelRepository;
+
+		@Autowired
+		private JdbcTemplate jdbcTemplate;
+
+		@Autowired
+		private PlatformTransactionManager transactionManager;
+
+		@Autowired
+		private DataSource dataSource;
+
+		@Test
+		void searchCatchUpUsesUpdatedAtIndexOnEveryPartition() {
+			assertThat(jdbcTemplate.queryForObject("SELECT indexdef FROM pg_indexes "
+				+ "WHERE schemaname = current_schema() AND indexname = 'idx_parcels_updated_at'", String.class))
+				.contains("ON ONLY parcels_partitioned.parcels", "(updated_at)");
+
+			LocalDateTime since = LocalDateTime.now();
+			new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+				try (Stream<Object[]> rows = parcelRepository.streamSearchFieldsUpdatedSince(since)) {
+					rows.forEach(row -> { });
+				}
+			});
+			// Partitions carry their own copies of the index, named after the partition
+			String plan = explain(transactionManager, jdbcTemplate, RecordingStatementInspector.lastSql(), since);
+			assertThat(plan).as("query plan:%n%s", plan)
+				.doesNotContainIgnoringCase("seq scan")
+				.containsIgnoringCase("updated_at_idx");
+		}
+
+		// The migration renames the old table's indexes out of the way, or the new table's would be skipped
+		@Test
+		void migrationMovesEveryIndexNameToThePartitionedTable() throws IOException, SQLException {
+			String script = partitioningScript("migrate-parcels-to-partitioned.sql")
+				.replace("\\ir parcels-partitioned.sql", partitioningScript("parcels-partitioned.sql"));
+			try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+				connection.setAutoCommit(true);
+				statement.execute("CREATE SCHEMA parcels_migration");
+				try {
+					connection.setSchema("parcels_migration");
+					// The table as ddl-auto created it before partitioning
+					statement.execute("CREATE TABLE parcels (LIKE parcels_partitioned.parcels, "
+						+ "CONSTRAINT parcels_pkey PRIMARY KEY (id))");
+					for (String column : new String[] {"sender_email", "recipient_email", "status, created_at",
+							"created_at", "updated_at"}) {
+						statement.execute("CREATE INDEX idx_parcels_" + column.replace(", ", "_")
+							+ " ON parcels (" + column + ")");
+					}
+
+					statement.execute(script);
+
+					assertThat(jdbcTemplate.queryForList("SELECT indexname FROM pg_indexes "
+						+ "WHERE schemaname = 'parcels_migration' AND tablename = 'parcels'", String.class))
+						.contains("idx_parcels_sender_email", "idx_parcels_recipient_email",
+							"idx_parcels_status_created_at", "idx_parcels_created_at", "idx_parcels_updated_at");
+				} finally {
+					statement.execute("DROP SCHEMA parcels_migration CASCADE");
+				}
+			}
+		}
+
+		private static String partitioningScript(String name) throws IOException {
+			return new ClassPathResource("db/partitioning/" + name).getContentAsString(StandardCharsets.UTF_8);
+		}
+	}
+
+}
@@ -0,0 +1,91 @@
+package com.online_ordering.online_ordering.repository;
+
+import com.online_ordering.online_ordering.config.LegacySchemaUpgrade;
+import com.online_ordering.online_ordering.entity.Parcel;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static com.online_ordering.online_ordering.ParcelFixtures.sampleRequest;
+import static org.assertj.core.api.Assertions.assertThat;
+
+// A database left behind by an earlier version, recreated on a real Postgres (see PostgresQueryPlanTests)
+@EnabledIfEnvironmentVariable(named = "PARCELS_EXPLAIN_PG_URL", matches = ".+")
+@SpringBootTest(properties = {
+	"spring.datasource.url=${PARCELS_EXPLAIN_PG_URL}",
+	"spring.datasource.username=${PARCELS_EXPLAIN_PG_USER:postgres}",
+	"spring.datasource.password=${PARCELS_EXPLAIN_PG_PASSWORD:postgres}",
+	"spring.datasource.driver-class-name=org.postgresql.Driver",
+	"spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.PostgreSQLDialect",
+	"spring.jpa.hibernate.ddl-auto=create-drop"
+})
+class PostgresSchemaUpgradeTests {
+
+	@Autowired
+	private LegacySchemaUpgrade schemaUpgrade;
+
+	@Autowired
+	private ParcelRepository parcelRepository;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@Test
+	void parcelSequenceIsMovedPastIdsFromTheIdentityColumn() {
+		TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+		// parcels_seq as ddl-auto creates it, next to a row numbered by the old identity column
+		Parcel legacy = parcelRepository.saveAndFlush(parcel("legacy-seq@example.com"));
+		transaction.executeWithoutResult(status -> {
+			jdbcTemplate.update("UPDATE parcels SET id = 1000 WHERE id = ?", legacy.getId());
+			jdbcTemplate.queryForList("SELECT setval('parcels_seq', 1, false)");
+		});
+
+		schemaUpgrade.upgrade();
+		// The pooled optimizer takes ids (value - 49) to value from each nextval
+		long next = transaction.execute(status ->
+			jdbcTemplate.queryForObject("SELECT nextval('parcels_seq')", Long.class));
+		assertThat(next - 49).isGreaterThan(1000);
+
+		// Already ahead: left alone
+		schemaUpgrade.upgrade();
+		assertThat(jdbcTemplate.queryForObject("SELECT last_value FROM parcels_seq", Long.class)).isEqualTo(next);
+		parcelRepository.deleteById(1000L);
+	}
+
+	@Test
+	void parcelsWithoutAVersionCanBeUpdatedAfterTheUpgrade() {
+		TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+		Parcel legacy = parcelRepository.saveAndFlush(parcel("legacy-version@example.com"));
+		// The column as ddl-auto added it to a table that already had rows
+		transaction.executeWithoutResult(status -> {
+			jdbcTemplate.execute("ALTER TABLE parcels ALTER COLUMN version DROP NOT NULL");
+			jdbcTemplate.execute("ALTER TABLE parcels ALTER COLUMN version DROP DEFAULT");
+			jdbcTemplate.update("UPDATE parcels SET version = NULL WHERE id = ?", legacy.getId());
+		});
+
+		schemaUpgrade.upgrade();
+
+		assertThat(jdbcTemplate.queryForObject("SELECT version FROM parcels WHERE id = ?", Long.class,
+			legacy.getId())).isZero();
+		assertThat(jdbcTemplate.queryForObject("SELECT is_nullable FROM information_schema.columns WHERE "
+			+ "table_schema = current_schema() AND table_name = 'parcels' AND column_name = 'version'",
+			String.class)).isEqualTo("NO");
+		parcelRepository.deleteById(legacy.getId());
+	}
+
+	private static Parcel parcel(String senderEmail) {
+		Parcel parcel = new Parcel();
+		BeanUtils.copyProperties(sampleRequest(senderEmail), parcel);
+		parcel.setTrackingNumber("TRK" + System.nanoTime());
+		parcel.setShippingCost(10.0);
+		return parcel;
+	}
+}
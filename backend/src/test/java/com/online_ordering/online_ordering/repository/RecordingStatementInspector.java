@@ -0,0 +1,20 @@
+package com.online_ordering.online_ordering.repository;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+// Remembers the last SQL statement Hibernate prepared so tests can EXPLAIN exactly what runs
+public class RecordingStatementInspector implements StatementInspector {
+
+	private static final ThreadLocal<String> LAST_SQL = new ThreadLocal<>();
+
+	@Override
+	public String inspect(String sql) {
+		LAST_SQL.set(sql);
+		return sql;
+	}
+
+	public static String lastSql() {
+		return LAST_SQL.get();
+	}
+
+}
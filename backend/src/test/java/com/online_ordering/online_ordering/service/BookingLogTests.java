@@ -0,0 +1,226 @@
+package com.online_ordering.online_ordering.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class BookingLogTests {
+
+	@TempDir
+	Path directory;
+
+	@Test
+	void reopenResumesFromCheckpointAndDropsTornTail() throws Exception {
+		long firstEnd;
+		try (BookingLog log = new BookingLog(directory)) {
+			firstEnd = log.append("{\"n\":1}");
+			log.append("{\"n\":2}");
+			log.append("{\"n\":3}");
+			log.checkpoint(firstEnd);
+		}
+		// Simulate a crash halfway through writing a fourth record
+		Files.writeString(directory.resolve("bookings.log"), "0badc0de {\"n\":",
+			StandardCharsets.UTF_8, StandardOpenOption.APPEND);
+
+		try (BookingLog log = new BookingLog(directory)) {
+			assertThat(log.checkpoint()).isEqualTo(firstEnd);
+			List<BookingLog.Entry> entries = log.read(log.checkpoint(), 10);
+			assertThat(entries).extracting(e -> e.payload).containsExactly("{\"n\":2}", "{\"n\":3}");
+			assertThat(Files.size(directory.resolve("bookings.log"))).isEqualTo(log.durableEnd());
+
+			long end = log.append("{\"n\":4}");
+			assertThat(log.read(entries.get(1).endOffset, 10)).extracting(e -> e.payload).containsExactly("{\"n\":4}");
+			assertThat(end).isEqualTo(log.durableEnd());
+		}
+	}
+
+	@Test
+	void truncatesOnlyOnceEverythingIsCheckpointed() throws Exception {
+		try (BookingLog log = new BookingLog(directory)) {
+			long first = log.append("{\"n\":1}");
+			long second = log.append("{\"n\":2}");
+
+			log.checkpoint(first);
+			assertThat(log.truncateIfDrained(first)).isFalse();
+
+			log.checkpoint(second);
+			assertThat(log.truncateIfDrained(second)).isTrue();
+			assertThat(log.durableEnd()).isZero();
+			assertThat(log.read(0, 10)).isEmpty();
+		}
+		try (BookingLog log = new BookingLog(directory)) {
+			assertThat(log.checkpoint()).isZero();
+			assertThat(log.read(0, 10)).isEmpty();
+		}
+	}
+
+	@Test
+	void readHonoursMaxRecords() throws Exception {
+		try (BookingLog log = new BookingLog(directory)) {
+			for (int i = 0; i < 5; i++) {
+				log.append("{\"n\":" + i + "}");
+			}
+			List<BookingLog.Entry> firstTwo = log.read(0, 2);
+			assertThat(firstTwo).extracting(e -> e.payload).containsExactly("{\"n\":0}", "{\"n\":1}");
+			assertThat(log.read(firstTwo.get(1).endOffset, 10)).hasSize(3);
+		}
+	}
+
+	@Test
+	void corruptRecordIsReportedWithoutLosingTheOnesAfterIt() throws Exception {
+		long firstEnd;
+		try (BookingLog log = new BookingLog(directory)) {
+			firstEnd = log.append("{\"n\":1}");
+			log.append("{\"n\":2}");
+			log.append("{\"n\":3}");
+		}
+		// Bit rot in the second record: its checksum no longer matches
+		try (FileChannel file = FileChannel.open(directory.resolve("bookings.log"), StandardOpenOption.WRITE)) {
+			file.write(ByteBuffer.wrap("7".getBytes(StandardCharsets.US_ASCII)), firstEnd + 14);
+		}
+
+		try (BookingLog log = new BookingLog(directory)) {
+			List<BookingLog.Entry> entries = log.read(0, 10);
+			assertThat(entries).extracting(BookingLog.Entry::isCorrupt).containsExactly(false, true, false);
+			assertThat(entries.get(1).line).endsWith(" {\"n\":7}");
+			assertThat(entries.get(2).payload).isEqualTo("{\"n\":3}");
+		}
+	}
+
+	@Test
+	void failedFsyncRollsTheRecordBack() throws Exception {
+		FlakyChannel channel = new FlakyChannel(FileChannel.open(directory.resolve("bookings.log"),
+			StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE));
+		try (BookingLog log = new BookingLog(directory, channel)) {
+			long first = log.append("{\"n\":1}");
+			channel.failNextForce = true;
+			assertThatThrownBy(() -> log.append("{\"n\":2}")).isInstanceOf(IOException.class);
+			assertThat(Files.size(directory.resolve("bookings.log"))).isEqualTo(first);
+
+			// A later fsync must not make the rolled-back record durable after all
+			log.append("{\"n\":3}");
+			assertThat(log.read(0, 10)).extracting(e -> e.payload).containsExactly("{\"n\":1}", "{\"n\":3}");
+		}
+		try (BookingLog log = new BookingLog(directory)) {
+			assertThat(log.read(0, 10)).extracting(e -> e.payload).containsExactly("{\"n\":1}", "{\"n\":3}");
+		}
+	}
+
+	// Delegates to a real channel; force fails once when asked to, as a full or failing disk would
+	private static final class FlakyChannel extends FileChannel {
+
+		private final FileChannel delegate;
+
+		volatile boolean failNextForce;
+
+		FlakyChannel(FileChannel delegate) {
+			this.delegate = delegate;
+		}
+
+		@Override
+		public void force(boolean metaData) throws IOException {
+			if (failNextForce) {
+				failNextForce = false;
+				throw new IOException("fsync failed");
+			}
+			delegate.force(metaData);
+		}
+
+		@Override
+		public int read(ByteBuffer dst) throws IOException {
+			return delegate.read(dst);
+		}
+
+		@Override
+		public long read(ByteBuffer[] dsts, int offset, int length) throws IOException {
+			return delegate.read(dsts, offset, length);
+		}
+
+		@Override
+		public int write(ByteBuffer src) throws IOException {
+			return delegate.write(src);
+		}
+
+		@Override
+		public long write(ByteBuffer[] srcs, int offset, int length) throws IOException {
+			return delegate.write(srcs, offset, length);
+		}
+
+		@Override
+		public long position() throws IOException {
+			return delegate.position();
+		}
+
+		@Override
+		public FileChannel position(long newPosition) throws IOException {
+			delegate.position(newPosition);
+			return this;
+		}
+
+		@Override
+		public long size() throws IOException {
+			return delegate.size();
+		}
+
+		@Override
+		public FileChannel truncate(long size) throws IOException {
+			delegate.truncate(size);
+			return this;
+		}
+
+		@Override
+		public long transferTo(long position, long count, WritableByteChannel target) throws IOException {
+			return delegate.transferTo(position, count, target);
+		}
+
+		@Override
+		public long transferFrom(ReadableByteChannel src, long position, long count) throws IOException {
+			return delegate.transferFrom(src, position, count);
+		}
+
+		@Override
+		public int read(ByteBuffer dst, long position) throws IOException {
+			return delegate.read(dst, position);
+		}
+
+		@Override
+		public int write(ByteBuffer src, long position) throws IOException {
+			return delegate.write(src, position);
+		}
+
+		@Override
+		public MappedByteBuffer map(MapMode mode, long position, long size) throws IOException {
+			return delegate.map(mode, position, size);
+		}
+
+		@Override
+		public FileLock lock(long position, long size, boolean shared) throws IOException {
+			return delegate.lock(position, size, shared);
+		}
+
+		@Override
+		public FileLock tryLock(long position, long size, boolean shared) throws IOException {
+			return delegate.tryLock(position, size, shared);
+		}
+
+		@Override
+		protected void implCloseChannel() throws IOException {
+			delegate.close();
+		}
+	}
+}
@@ -0,0 +1,55 @@
+package com.online_ordering.online_ordering.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.online_ordering.online_ordering.entity.Parcel;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.io.ClassPathResource;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+// Rate card pricing and the ETA helper of ParcelService; in the service package to reach the package-private helper
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ParcelServiceBenchmark {
+
+    @Param({"STANDARD", "SAME_DAY"})
+    private Parcel.DeliveryType deliveryType;
+
+    private ParcelService parcelService;
+
+    private ShippingRateEngine rateEngine;
+
+    private double weight;
+
+    @Setup
+    public void setUp() {
+        parcelService = new ParcelService();
+        rateEngine = new TableShippingRateEngine(new ClassPathResource("rates/rate-card.json"), new ObjectMapper());
+        weight = 2.5;
+    }
+
+    @Benchmark
+    public double calculateShippingCost() {
+        return rateEngine.shippingCost(null, weight, 30.0, 20.0, 15.0, Parcel.ParcelType.PACKAGE, deliveryType);
+    }
+
+    @Benchmark
+    public LocalDateTime calculateEstimatedDeliveryDate() {
+        return parcelService.calculateEstimatedDeliveryDate(deliveryType);
+    }
+}
@@ -0,0 +1,54 @@
+package com.online_ordering.online_ordering.service;
+
+import com.online_ordering.online_ordering.entity.Parcel;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import static com.online_ordering.online_ordering.ParcelFixtures.sampleRequest;
+import static org.assertj.core.api.Assertions.assertThat;
+
+// LISTEN/NOTIFY on a real Postgres (see PostgresQueryPlanTests). A one-connection pool proves that publishing an
+// invalidation does not need a second connection next to the writing transaction's.
+@EnabledIfEnvironmentVariable(named = "PARCELS_EXPLAIN_PG_URL", matches = ".+")
+@SpringBootTest(properties = {
+	"spring.datasource.url=${PARCELS_EXPLAIN_PG_URL}",
+	"spring.datasource.username=${PARCELS_EXPLAIN_PG_USER:postgres}",
+	"spring.datasource.password=${PARCELS_EXPLAIN_PG_PASSWORD:postgres}",
+	"spring.datasource.driver-class-name=org.postgresql.Driver",
+	"spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.PostgreSQLDialect",
+	"spring.jpa.hibernate.ddl-auto=create-drop",
+	"spring.datasource.hikari.maximum-pool-size=1",
+	"spring.datasource.hikari.connection-timeout=2000",
+	"parcels.l2-cache.invalidation=postgres"
+})
+class PostgresCacheInvalidationTests {
+
+	@Autowired
+	private ParcelService parcelService;
+
+	@Autowired
+	private CacheInvalidationTransport transport;
+
+	@Test
+	void writesPublishOnTheirOwnConnectionAndOtherNodesHearOnCommit() throws Exception {
+		List<String> received = new CopyOnWriteArrayList<>();
+		transport.subscribe(received::add, () -> { });
+
+		Parcel parcel = parcelService.createParcel(sampleRequest("pg-notify@example.com"));
+		parcelService.updateParcelStatus(parcel.getId(), Parcel.ParcelStatus.CONFIRMED);
+
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+		while (received.size() < 2 && System.nanoTime() < deadline) {
+			Thread.sleep(20);
+		}
+		assertThat(received).hasSize(2)
+			.allMatch(message -> message.endsWith(" " + parcel.getId() + ":" + parcel.getTrackingNumber()));
+		parcelService.deleteParcel(parcel.getId());
+	}
+}
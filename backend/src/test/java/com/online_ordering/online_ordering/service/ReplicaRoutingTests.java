@@ -0,0 +1,128 @@
+package com.online_ordering.online_ordering.service;
+
+import com.online_ordering.online_ordering.config.ReplicaRouter;
+import com.online_ordering.online_ordering.dto.ParcelSummary;
+import com.online_ordering.online_ordering.entity.Parcel;
+import com.online_ordering.online_ordering.repository.ParcelRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.Statement;
+import java.util.List;
+
+import static com.online_ordering.online_ordering.ParcelFixtures.sampleRequest;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+// A second in-memory H2 database stands in for the replica. Nothing replicates to it, so which database
+// answered a query shows in the result.
+@SpringBootTest(properties = {
+	"parcels.datasource.replica-urls=" + ReplicaRoutingTests.REPLICA_URL,
+	"parcels.datasource.replica-username=sa",
+	"parcels.datasource.replica-password=",
+	"parcels.datasource.replica-lag-query=SELECT seconds FROM replica_lag",
+	"parcels.datasource.replica-lag-check-interval=PT1H"
+})
+class ReplicaRoutingTests {
+
+	static final String REPLICA_URL = "jdbc:h2:mem:replica;DB_CLOSE_DELAY=-1";
+
+	@Autowired
+	private ParcelService parcelService;
+
+	@Autowired
+	private ReplicaRouter replicaRouter;
+
+	@Autowired
+	private ParcelRepository parcelRepository;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@BeforeEach
+	void copySchemaToReplica() throws Exception {
+		List<String> ddl = jdbcTemplate.queryForList("SCRIPT NODATA", String.class).stream()
+			.filter(sql -> sql.startsWith("CREATE") && !sql.startsWith("CREATE USER") || sql.startsWith("ALTER"))
+			.toList();
+		try (Connection replica = DriverManager.getConnection(REPLICA_URL, "sa", "");
+			 Statement statement = replica.createStatement()) {
+			statement.execute("DROP ALL OBJECTS");
+			for (String sql : ddl) {
+				statement.execute(sql);
+			}
+			statement.execute("CREATE TABLE replica_lag (seconds DOUBLE)");
+			statement.execute("INSERT INTO replica_lag VALUES (0)");
+		}
+		replicaRouter.checkLag();
+	}
+
+	@Test
+	void readOnlyQueriesUseTheReplicaUnlessLaggingOrRecentlyWritten() throws Exception {
+		replicaOnly("INSERT INTO parcels (id, tracking_number, sender_name, sender_email, sender_phone, sender_address, "
+			+ "recipient_name, recipient_email, recipient_phone, recipient_address, weight, length, width, height, "
+			+ "parcel_type, delivery_type, status, shipping_cost, created_at, updated_at, version) VALUES "
+			+ "(-1, 'REPLICA-ONLY', 'S', 'replica-only@example.com', '1', 'A', 'R', 'r@example.com', '2', 'B', "
+			+ "1, 1, 1, 1, 'PACKAGE', 'STANDARD', 'PENDING', 5, NOW(), NOW(), 0)");
+		assertThat(parcelService.getParcelsBySenderEmail("replica-only@example.com"))
+			.extracting(ParcelSummary::getTrackingNumber).containsExactly("REPLICA-ONLY");
+		assertThat(parcelService.getParcelByTrackingNumber("REPLICA-ONLY")).isPresent();
+
+		// The replica never receives this booking, yet it is visible to its sender straight away
+		Parcel booked = parcelService.createParcel(sampleRequest("replica-writer@example.com"));
+		assertThat(parcelService.getParcelsBySenderEmail("replica-writer@example.com"))
+			.extracting(ParcelSummary::getId).containsExactly(booked.getId());
+		assertThat(parcelService.getParcelByTrackingNumber(booked.getTrackingNumber())).isPresent();
+		// Load-modify-save paths read the primary
+		assertThat(parcelService.updateParcelStatus(booked.getId(), Parcel.ParcelStatus.CONFIRMED).getStatus())
+			.isEqualTo(Parcel.ParcelStatus.CONFIRMED);
+
+		// Over max-lag the replica leaves the rotation and reads fall back to the primary
+		replicaOnly("UPDATE replica_lag SET seconds = 10");
+		replicaRouter.checkLag();
+		assertThat(parcelService.getParcelsBySenderEmail("replica-only@example.com")).isEmpty();
+
+		parcelService.deleteParcel(booked.getId());
+	}
+
+	@Test
+	void newTrackingNumbersBookedElsewhereAreReadFromThePrimary() throws Exception {
+		// Written straight to the primary, as another instance would: this instance has no record of either
+		Parcel fresh = parcelRepository.save(parcel(new TimeSequenceTrackingNumberGenerator(7).next()));
+		Parcel legacy = parcelRepository.save(parcel("TRKLEGACY1"));
+
+		assertThat(parcelService.getParcelByTrackingNumber(fresh.getTrackingNumber())).isPresent();
+		// No issue time to go by, so served by the replica, which has not got it
+		assertThat(parcelService.getParcelByTrackingNumber(legacy.getTrackingNumber())).isEmpty();
+
+		parcelRepository.deleteAll(List.of(fresh, legacy));
+	}
+
+	@Test
+	void connectionsWithOtherCredentialsComeFromThePrimary() {
+		// Hikari does not take credentials per connection; the router reports the primary pool's refusal
+		assertThatThrownBy(() -> replicaRouter.getConnection("sa", ""))
+			.isInstanceOf(SQLFeatureNotSupportedException.class);
+	}
+
+	private static Parcel parcel(String trackingNumber) {
+		Parcel parcel = new Parcel();
+		BeanUtils.copyProperties(sampleRequest("elsewhere@example.com"), parcel);
+		parcel.setTrackingNumber(trackingNumber);
+		parcel.setShippingCost(10.0);
+		return parcel;
+	}
+
+	private static void replicaOnly(String sql) throws Exception {
+		try (Connection replica = DriverManager.getConnection(REPLICA_URL, "sa", "");
+			 Statement statement = replica.createStatement()) {
+			statement.execute(sql);
+		}
+	}
+}
@@ -0,0 +1,74 @@
+package com.online_ordering.online_ordering.service;
+
+import com.online_ordering.online_ordering.entity.Parcel;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static com.online_ordering.online_ordering.ParcelFixtures.sampleRequest;
+import static org.assertj.core.api.Assertions.assertThat;
+
+// The loopback transport delivers this node's own messages; the test publishes the other nodes' messages itself
+@SpringBootTest
+class SecondLevelCacheTests {
+
+	@Autowired
+	private ParcelService parcelService;
+
+	@Autowired
+	private CacheInvalidationTransport transport;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	@Test
+	void parcelsAndStatusListsAreCachedUntilAnyNodeWritesThem() {
+		List<String> published = new CopyOnWriteArrayList<>();
+		transport.subscribe(published::add, () -> { });
+		Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		jakarta.persistence.Cache cache = entityManagerFactory.getCache();
+
+		Parcel parcel = parcelService.createParcel(sampleRequest("l2-cache@example.com"));
+		assertThat(published)
+			.anyMatch(message -> message.endsWith(" " + parcel.getId() + ":" + parcel.getTrackingNumber()));
+		assertThat(cache.contains(Parcel.class, parcel.getId())).isTrue();
+
+		long entityHits = statistics.getSecondLevelCacheHitCount();
+		assertThat(parcelService.getParcelById(parcel.getId())).isPresent();
+		assertThat(statistics.getSecondLevelCacheHitCount()).isEqualTo(entityHits + 1);
+
+		parcelService.getParcelsByStatus(Parcel.ParcelStatus.PENDING);
+		long queryHits = statistics.getQueryCacheHitCount();
+		parcelService.getParcelsByStatus(Parcel.ParcelStatus.PENDING);
+		assertThat(statistics.getQueryCacheHitCount()).isEqualTo(queryHits + 1);
+
+		// This node's own message leaves its (already current) entry alone
+		parcelService.updateParcelStatus(parcel.getId(), Parcel.ParcelStatus.CONFIRMED);
+		assertThat(cache.contains(Parcel.class, parcel.getId())).isTrue();
+
+		// Another node wrote the parcel: its tracking lookup must not keep serving the old status either
+		parcelService.getParcelsByStatus(Parcel.ParcelStatus.CONFIRMED);
+		parcelService.getParcelByTrackingNumber(parcel.getTrackingNumber());
+		Object trackingSize = parcelService.getTrackingCacheStats().get("size");
+		transport.publish("other-node " + parcel.getId() + ":" + parcel.getTrackingNumber());
+		assertThat(cache.contains(Parcel.class, parcel.getId())).isFalse();
+		assertThat((long) parcelService.getTrackingCacheStats().get("size")).isEqualTo((long) trackingSize - 1);
+		long queryMisses = statistics.getQueryCacheMissCount();
+		parcelService.getParcelsByStatus(Parcel.ParcelStatus.CONFIRMED);
+		assertThat(statistics.getQueryCacheMissCount()).isEqualTo(queryMisses + 1);
+
+		assertThat(meterRegistry.find("hibernate.second.level.cache.requests").tag("region", "parcels").meters())
+			.isNotEmpty();
+		parcelService.deleteParcel(parcel.getId());
+	}
+}
@@ -0,0 +1,96 @@
+package com.online_ordering.online_ordering.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.online_ordering.online_ordering.dto.QuoteRequest;
+import com.online_ordering.online_ordering.dto.QuoteResponse;
+import com.online_ordering.online_ordering.entity.Parcel;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.FileSystemResource;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TableShippingRateEngineTests {
+
+	private final ObjectMapper objectMapper = new ObjectMapper();
+
+	@Test
+	void defaultCardKeepsLegacyPricesForDenseParcels() {
+		ShippingRateEngine engine = new TableShippingRateEngine(new ClassPathResource("rates/rate-card.json"), objectMapper);
+
+		for (Parcel.DeliveryType deliveryType : Parcel.DeliveryType.values()) {
+			double multiplier = switch (deliveryType) {
+				case STANDARD -> 1.0;
+				case EXPRESS -> 1.5;
+				case SAME_DAY -> 2.5;
+				case OVERNIGHT -> 2.0;
+			};
+			assertThat(engine.shippingCost(null, 2.5, 30.0, 20.0, 15.0, Parcel.ParcelType.PACKAGE, deliveryType))
+				.isEqualTo((5.0 + 2.5 * 2.0) * multiplier);
+		}
+	}
+
+	@Test
+	void bulkyParcelsPayForVolumetricWeight() {
+		ShippingRateEngine engine = new TableShippingRateEngine(new ClassPathResource("rates/rate-card.json"), objectMapper);
+		QuoteRequest request = quoteRequest(1.0, 100.0, 50.0, 40.0);
+
+		QuoteResponse quote = engine.quote(request);
+
+		// 100 x 50 x 40 / 5000 = 40 kg chargeable
+		assertThat(quote.getChargeableWeight()).isEqualTo(40.0);
+		assertThat(quote.getShippingCost()).isEqualTo(5.0 + 40.0 * 2.0);
+		assertThat(quote.getZone()).isEqualTo("DOMESTIC");
+	}
+
+	@Test
+	void zonesPriceByWeightBracket() {
+		ShippingRateEngine engine = new TableShippingRateEngine(new ClassPathResource("rates/rate-card.json"), objectMapper);
+		QuoteRequest light = quoteRequest(2.0, 10.0, 10.0, 10.0);
+		light.setZone("INTERNATIONAL");
+		QuoteRequest heavy = quoteRequest(25.0, 10.0, 10.0, 10.0);
+		heavy.setZone("INTERNATIONAL");
+		QuoteRequest unknown = quoteRequest(2.0, 10.0, 10.0, 10.0);
+		unknown.setZone("MARS");
+
+		assertThat(engine.quote(light).getShippingCost()).isEqualTo(18.0 + 2.0 * 6.0);
+		assertThat(engine.quote(heavy).getShippingCost()).isEqualTo(40.0 + 25.0 * 3.5);
+		assertThatThrownBy(() -> engine.quote(unknown)).isInstanceOf(IllegalArgumentException.class);
+	}
+
+	@Test
+	void invalidReloadKeepsCurrentCard(@TempDir Path dir) throws IOException {
+		Path card = dir.resolve("rate-card.json");
+		Files.copy(new ClassPathResource("rates/rate-card.json").getInputStream(), card);
+		ShippingRateEngine engine = new TableShippingRateEngine(new FileSystemResource(card), objectMapper);
+
+		Files.writeString(card, "{\"version\":\"broken\",\"defaultZone\":\"NOWHERE\",\"dimensionalDivisor\":5000,"
+			+ "\"zones\":{\"DOMESTIC\":[{\"upToKg\":null,\"base\":1,\"perKg\":1}]}}");
+		assertThatThrownBy(engine::reload).isInstanceOf(IllegalArgumentException.class);
+		assertThat(engine.getRateCard().getVersion()).isEqualTo("default-1");
+
+		Files.writeString(card, "{\"version\":\"v2\",\"defaultZone\":\"DOMESTIC\",\"dimensionalDivisor\":5000,"
+			+ "\"zones\":{\"DOMESTIC\":[{\"upToKg\":null,\"base\":1,\"perKg\":1}]},"
+			+ "\"deliveryMultipliers\":{\"STANDARD\":1,\"EXPRESS\":1,\"SAME_DAY\":1,\"OVERNIGHT\":1}}");
+		engine.reload();
+		assertThat(engine.getRateCard().getVersion()).isEqualTo("v2");
+		assertThat(engine.quote(quoteRequest(3.0, 10.0, 10.0, 10.0)).getShippingCost()).isEqualTo(4.0);
+	}
+
+	private static QuoteRequest quoteRequest(double weight, double length, double width, double height) {
+		QuoteRequest request = new QuoteRequest();
+		request.setWeight(weight);
+		request.setLength(length);
+		request.setWidth(width);
+		request.setHeight(height);
+		request.setParcelType(Parcel.ParcelType.PACKAGE);
+		request.setDeliveryType(Parcel.DeliveryType.STANDARD);
+		return request;
+	}
+}
@@ -0,0 +1,72 @@
+package com.online_ordering.online_ordering.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TimeSequenceTrackingNumberGeneratorTests {
+
+	@Test
+	void generatesUniqueNumbersAcrossThreads() {
+		TimeSequenceTrackingNumberGenerator generator = new TimeSequenceTrackingNumberGenerator(7);
+		Set<String> seen = ConcurrentHashMap.newKeySet();
+
+		IntStream.range(0, 200_000).parallel().forEach(i -> seen.add(generator.next()));
+
+		assertThat(seen).hasSize(200_000);
+	}
+
+	@Test
+	void differentNodesNeverCollide() {
+		TimeSequenceTrackingNumberGenerator nodeA = new TimeSequenceTrackingNumberGenerator(1);
+		TimeSequenceTrackingNumberGenerator nodeB = new TimeSequenceTrackingNumberGenerator(2);
+		Set<String> seen = ConcurrentHashMap.newKeySet();
+
+		for (int i = 0; i < 50_000; i++) {
+			seen.add(nodeA.next());
+			seen.add(nodeB.next());
+		}
+
+		assertThat(seen).hasSize(100_000);
+	}
+
+	@Test
+	void checkCharacterDetectsSingleCharacterTypos() {
+		String trackingNumber = new TimeSequenceTrackingNumberGenerator(0).next();
+		assertThat(trackingNumber).startsWith("TRK").hasSize(17);
+		assertThat(TimeSequenceTrackingNumberGenerator.isValid(trackingNumber)).isTrue();
+
+		char[] typo = trackingNumber.toCharArray();
+		typo[8] = typo[8] == 'A' ? 'B' : 'A';
+		assertThat(TimeSequenceTrackingNumberGenerator.isValid(new String(typo))).isFalse();
+	}
+
+	@Test
+	void decodesIssueTime() {
+		long before = System.currentTimeMillis();
+		String trackingNumber = new TimeSequenceTrackingNumberGenerator(1023).next();
+		long after = System.currentTimeMillis();
+
+		assertThat(TimeSequenceTrackingNumberGenerator.issuedAtMillis(trackingNumber).getAsLong())
+			.isBetween(before, after);
+		assertThat(TimeSequenceTrackingNumberGenerator.issuedAtMillis("TRK1A2B3C4D")).isEmpty();
+	}
+
+	@Test
+	void refusesToDeriveNodeIdWhenOneIsRequired() {
+		assertThatThrownBy(() -> new TimeSequenceTrackingNumberGenerator(-1, true))
+			.isInstanceOf(IllegalStateException.class);
+	}
+
+	@Test
+	void rejectsOutOfRangeNodeId() {
+		assertThatThrownBy(() -> new TimeSequenceTrackingNumberGenerator(1024))
+			.isInstanceOf(IllegalArgumentException.class);
+	}
+
+}
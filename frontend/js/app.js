@@ -104,6 +104,17 @@ async function handleFormSubmit(e) {
     }
 }
 
+// Open server-sent event streams; at most one per view so a new search replaces the old subscription
+let trackEvents = null;
+let userEvents = null;
+
+function subscribeToStatusEvents(url, onStatus) {
+    const source = new EventSource(url);
+    source.addEventListener('status', (event) => onStatus(JSON.parse(event.data)));
+    source.onerror = () => console.warn('Status stream interrupted, browser will reconnect:', url);
+    return source;
+}
+
 // Track Parcel Functionality
 async function trackParcel() {
     const trackingNumber = document.getElementById('trackingInput').value.trim();
@@ -128,6 +139,16 @@ async function trackParcel() {
         if (response.ok) {
             displayParcelDetails(result);
             showToast('Parcel found!', 'success');
+
+            // Push status changes instead of polling the track endpoint
+            if (trackEvents) {
+                trackEvents.close();
+            }
+            trackEvents = subscribeToStatusEvents(`${url}/events`, (change) => {
+                result.status = change.status;
+                displayParcelDetails(result);
+                showToast(`Status changed to ${formatStatus(change.status)}`, 'info');
+            });
         } else {
             document.getElementById('trackResult').innerHTML = `
                 <div class="parcel-card">
@@ -210,6 +231,18 @@ async function loadUserParcels() {
         console.log('Parcels data:', parcels);
 
         displayParcelsList(parcels);
+
+        // Push status changes for every parcel the user sends or receives
+        if (userEvents) {
+            userEvents.close();
+        }
+        userEvents = subscribeToStatusEvents(`${url}/events`, (change) => {
+            const parcel = parcels.find(p => p.trackingNumber === change.trackingNumber);
+            if (parcel) {
+                parcel.status = change.status;
+                displayParcelsList(parcels);
+            }
+        });
         
         if (parcels.length > 0) {
             showToast(`Found ${parcels.length} parcel(s)`, 'success');